@@ -0,0 +1,72 @@
+package io.sherdor.todoapp.benchmarks;
+
+import io.sherdor.todoapp.dto.CreateTodoDto;
+import io.sherdor.todoapp.dto.TodoDto;
+import io.sherdor.todoapp.service.TodoService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rows inserted per second: one transaction per todo versus one batched transaction per
+ * {@value #BATCH_SIZE} todos.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class BatchInsertBenchmark {
+    private static final int BATCH_SIZE = 100;
+
+    private ConfigurableApplicationContext context;
+    private TodoService service;
+    private List<CreateTodoDto> batch;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkApplication.start(0);
+        service = context.getBean(TodoService.class);
+        LocalDateTime dueDate = LocalDateTime.now().plusDays(7);
+        batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            batch.add(new CreateTodoDto("Imported task " + i, "Created by the batch insert benchmark", i % 4, dueDate));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void singleRowInserts(Blackhole blackhole) {
+        for (CreateTodoDto todo : batch) {
+            blackhole.consume(service.createTodo(todo));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public List<TodoDto> batchedInsert() {
+        return service.createTodos(batch);
+    }
+}
@@ -0,0 +1,53 @@
+package io.sherdor.todoapp.benchmarks;
+
+import io.sherdor.todoapp.TodoAppApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Starts the application on a random port against a private in-memory H2 database holding {@code rows}
+ * synthetic todos from {@code TodoDataGenerator} (fixed seed, so every run sees the same data). Result caches
+ * and the SQL monitor's data source proxy are switched off so benchmarks measure the bare query path.
+ */
+final class BenchmarkApplication {
+    private BenchmarkApplication() {
+    }
+
+    static ConfigurableApplicationContext start(int rows) {
+        return start(rows, context -> {
+        });
+    }
+
+    static ConfigurableApplicationContext start(int rows,
+                                                ApplicationContextInitializer<ConfigurableApplicationContext> initializer,
+                                                String... extraArgs) {
+        // Passed as arguments so they take precedence over application.yml
+        List<String> args = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:bench-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1",
+                "--spring.cache.type=none",
+                "--spring.jpa.show-sql=false",
+                "--todo.sql.enabled=false",
+                "--spring.jpa.properties.hibernate.generate_statistics=false",
+                "--spring.jpa.properties.hibernate.cache.use_query_cache=false",
+                "--spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+                "--logging.level.root=WARN",
+                "--logging.level.io.sherdor.todoapp=WARN",
+                "--logging.level.org.springframework.web=WARN",
+                "--todo.stats.reconcile-interval=PT24H",
+                // Generated on startup by DataInitializer, before the stats and search index are built
+                "--todo.seed.rows=" + rows));
+        args.addAll(List.of(extraArgs));
+        return new SpringApplicationBuilder(TodoAppApplication.class)
+                .web(WebApplicationType.SERVLET)
+                .logStartupInfo(false)
+                .initializers(initializer)
+                .run(args.toArray(String[]::new));
+    }
+}
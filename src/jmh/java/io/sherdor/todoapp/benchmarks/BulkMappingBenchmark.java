@@ -0,0 +1,114 @@
+package io.sherdor.todoapp.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import io.sherdor.todoapp.dto.CreateTodoDto;
+import io.sherdor.todoapp.dto.TodoDto;
+import io.sherdor.todoapp.entity.Todo;
+import io.sherdor.todoapp.enums.Priority;
+import io.sherdor.todoapp.mappers.TodoMapper;
+import io.sherdor.todoapp.service.TodoNdjsonWriter;
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Batch conversions and NDJSON export rows, the stream-per-element way against the bulk paths. Run with
+ * {@code -prof gc}: gc.alloc.rate.norm divided by {@code rows} is the bytes allocated per row.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BulkMappingBenchmark {
+    @Param({"1000"})
+    public int rows;
+
+    private final TodoMapper mapper = Mappers.getMapper(TodoMapper.class);
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private final ObjectWriter jsonWriter = objectMapper.writerFor(TodoDto.class);
+    // Discards the output, so only the encoding is measured
+    private final Writer out = Writer.nullWriter();
+
+    private List<Todo> entities;
+    private List<CreateTodoDto> creates;
+    private List<TodoDto> dtos;
+    private TodoNdjsonWriter ndjson;
+
+    @Setup
+    public void setUp() throws IOException {
+        LocalDateTime now = LocalDateTime.now();
+        entities = new ArrayList<>(rows);
+        creates = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            entities.add(Todo.builder()
+                    .id((long) i)
+                    .title("Write report " + i)
+                    .description("Prepare monthly project report")
+                    .priority(Priority.values()[i % 4])
+                    .completed(i % 3 == 0)
+                    .createdAt(now.minusDays(1))
+                    .dueDate(now.plusDays(i % 7))
+                    .version(0L)
+                    .build());
+            creates.add(new CreateTodoDto("Buy groceries " + i, "Milk, bread, eggs", i % 4, now.plusHours(i % 24)));
+        }
+        dtos = mapper.toDtos(entities);
+        ndjson = new TodoNdjsonWriter(objectMapper.getFactory(), out);
+    }
+
+    @Benchmark
+    public List<TodoDto> toDtosStream() {
+        return entities.stream().map(mapper::toDto).toList();
+    }
+
+    @Benchmark
+    public List<TodoDto> toDtos() {
+        return mapper.toDtos(entities);
+    }
+
+    @Benchmark
+    public List<Todo> toEntitiesStream() {
+        return creates.stream().map(mapper::toEntity).toList();
+    }
+
+    @Benchmark
+    public List<Todo> toEntities() {
+        return mapper.toEntities(creates);
+    }
+
+    @Benchmark
+    public void ndjsonStringPerRow() throws IOException {
+        for (TodoDto todo : dtos) {
+            out.write(jsonWriter.writeValueAsString(todo));
+            out.write('\n');
+        }
+    }
+
+    @Benchmark
+    public void ndjsonGenerator() throws IOException {
+        for (TodoDto todo : dtos) {
+            ndjson.write(todo);
+        }
+        ndjson.flush();
+    }
+}
@@ -0,0 +1,206 @@
+package io.sherdor.todoapp.benchmarks;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Throughput and tail latency of the REST API with Tomcat on platform threads versus virtual threads.
+ * <p>
+ * For each mode a {@link LoadTestServer} JVM is started against a database that delays every statement, then
+ * each client count runs closed-loop: every client sends its next request as soon as the previous one
+ * answers. Options are {@code key=value} arguments, defaults in {@link #DEFAULTS}; results are printed and
+ * written as CSV to {@code out}.
+ */
+public final class LoadTest {
+    private static final Map<String, String> DEFAULTS = Map.of(
+            "modes", "platform,virtual",
+            "clients", "1000,5000",
+            "warmup", "PT10S",
+            "duration", "PT30S",
+            "rows", "10000",
+            "db-latency", "PT0.005S",
+            "pool-size", "10",
+            "path", "/api/todos/active?limit=20",
+            "server-heap", "1g",
+            "out", "target/load-test.csv");
+
+    private LoadTest() {
+    }
+
+    private record Result(String mode, int clients, double throughput, long ok, long errors, long[] latencies) {
+        double percentileMillis(double percentile) {
+            if (latencies.length == 0) {
+                return Double.NaN;
+            }
+            int index = (int) Math.ceil(percentile * latencies.length) - 1;
+            return latencies[Math.clamp(index, 0, latencies.length - 1)] / 1e6;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>(DEFAULTS);
+        for (String arg : args) {
+            String[] pair = arg.split("=", 2);
+            if (pair.length != 2 || !DEFAULTS.containsKey(pair[0])) {
+                throw new IllegalArgumentException("Unknown option " + arg + ", expected one of " + DEFAULTS.keySet());
+            }
+            options.put(pair[0], pair[1]);
+        }
+
+        List<Result> results = new ArrayList<>();
+        for (String mode : options.get("modes").split(",")) {
+            Process server = startServer(mode, options);
+            try {
+                URI uri = URI.create("http://localhost:" + awaitPort(server) + options.get("path"));
+                for (String clients : options.get("clients").split(",")) {
+                    int count = Integer.parseInt(clients);
+                    run(mode, uri, count, Duration.parse(options.get("warmup")));
+                    Result result = run(mode, uri, count, Duration.parse(options.get("duration")));
+                    results.add(result);
+                    print(List.of(result), false);
+                }
+            } finally {
+                server.getOutputStream().close();
+                server.waitFor();
+            }
+        }
+        System.out.println();
+        print(results, true);
+        write(Path.of(options.get("out")), results);
+    }
+
+    private static Process startServer(String mode, Map<String, String> options) throws IOException {
+        String pool = options.get("pool-size");
+        List<String> command = List.of(
+                Path.of(System.getProperty("java.home"), "bin", "java").toString(),
+                "-Xmx" + options.get("server-heap"),
+                "-cp", System.getProperty("java.class.path"),
+                LoadTestServer.class.getName(),
+                options.get("rows"),
+                options.get("db-latency"),
+                "--spring.threads.virtual.enabled=" + "virtual".equals(mode),
+                "--spring.datasource.hikari.maximum-pool-size=" + pool,
+                "--spring.datasource.hikari.minimum-idle=" + pool,
+                // Clients queue for connections by design; only give up on a request that is truly stuck
+                "--spring.datasource.hikari.connection-timeout=60000",
+                "--server.tomcat.max-connections=20000",
+                "--server.tomcat.accept-count=1000");
+        return new ProcessBuilder(command).redirectError(ProcessBuilder.Redirect.INHERIT).start();
+    }
+
+    private static int awaitPort(Process server) throws IOException {
+        var output = new BufferedReader(new InputStreamReader(server.getInputStream(), StandardCharsets.UTF_8));
+        for (String line = output.readLine(); line != null; line = output.readLine()) {
+            if (line.startsWith(LoadTestServer.READY)) {
+                return Integer.parseInt(line.substring(LoadTestServer.READY.length()).strip());
+            }
+        }
+        throw new IllegalStateException("Load test server exited before it started listening");
+    }
+
+    private static Result run(String mode, URI uri, int clients, Duration duration) throws InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(uri).timeout(Duration.ofMinutes(2)).GET().build();
+        long[][] latencies = new long[clients][];
+        int[] counts = new int[clients];
+        AtomicLong errors = new AtomicLong();
+        long start = System.nanoTime();
+        long deadline = start + duration.toNanos();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+             HttpClient http = HttpClient.newBuilder()
+                     .version(HttpClient.Version.HTTP_1_1)
+                     .connectTimeout(Duration.ofSeconds(30))
+                     .executor(executor)
+                     .build()) {
+            Thread[] threads = new Thread[clients];
+            for (int i = 0; i < clients; i++) {
+                int client = i;
+                threads[i] = Thread.ofVirtual().start(() -> {
+                    long[] own = new long[256];
+                    int count = 0;
+                    while (System.nanoTime() < deadline) {
+                        long sent = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = http.send(request, HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() != 200) {
+                                errors.incrementAndGet();
+                                continue;
+                            }
+                        } catch (IOException e) {
+                            errors.incrementAndGet();
+                            continue;
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            break;
+                        }
+                        if (count == own.length) {
+                            own = Arrays.copyOf(own, count * 2);
+                        }
+                        own[count++] = System.nanoTime() - sent;
+                    }
+                    latencies[client] = own;
+                    counts[client] = count;
+                });
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        long ok = Arrays.stream(counts).asLongStream().sum();
+        long[] all = new long[Math.toIntExact(ok)];
+        int offset = 0;
+        for (int i = 0; i < clients; i++) {
+            System.arraycopy(latencies[i], 0, all, offset, counts[i]);
+            offset += counts[i];
+        }
+        Arrays.sort(all);
+        return new Result(mode, clients, ok / seconds, ok, errors.get(), all);
+    }
+
+    private static void print(List<Result> results, boolean header) {
+        if (header) {
+            System.out.printf("%-9s %8s %10s %9s %9s %9s %9s %8s%n",
+                    "mode", "clients", "req/s", "p50 ms", "p99 ms", "p99.9 ms", "max ms", "errors");
+        }
+        for (Result r : results) {
+            System.out.printf(Locale.ROOT, "%-9s %8d %10.1f %9.1f %9.1f %9.1f %9.1f %8d%n",
+                    r.mode(), r.clients(), r.throughput(), r.percentileMillis(0.5), r.percentileMillis(0.99),
+                    r.percentileMillis(0.999), r.percentileMillis(1.0), r.errors());
+        }
+    }
+
+    private static void write(Path out, List<Result> results) throws IOException {
+        if (out.getParent() != null) {
+            Files.createDirectories(out.getParent());
+        }
+        try (var csv = new PrintWriter(Files.newBufferedWriter(out))) {
+            csv.println("mode,clients,requests_per_second,ok,errors,p50_ms,p99_ms,p999_ms,max_ms");
+            for (Result r : results) {
+                csv.printf(Locale.ROOT, "%s,%d,%.1f,%d,%d,%.2f,%.2f,%.2f,%.2f%n",
+                        r.mode(), r.clients(), r.throughput(), r.ok(), r.errors(), r.percentileMillis(0.5),
+                        r.percentileMillis(0.99), r.percentileMillis(0.999), r.percentileMillis(1.0));
+            }
+        }
+    }
+}
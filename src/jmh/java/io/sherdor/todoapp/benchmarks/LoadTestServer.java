@@ -0,0 +1,63 @@
+package io.sherdor.todoapp.benchmarks;
+
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * Server side of {@link LoadTest}, run in its own JVM so client and server do not share carrier threads.
+ * <p>
+ * Arguments: {@code <rows> <db-latency> [--spring.property=value ...]}. Every SQL statement is delayed by
+ * {@code db-latency} while it holds its connection, standing in for a remote or loaded database. Prints
+ * {@code LISTENING <port>} once started and shuts down when standard input is closed.
+ */
+public final class LoadTestServer {
+    static final String READY = "LISTENING ";
+
+    private LoadTestServer() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        int rows = Integer.parseInt(args[0]);
+        Duration dbLatency = Duration.parse(args[1]);
+        String[] springArgs = Arrays.copyOfRange(args, 2, args.length);
+
+        ConfigurableApplicationContext context = BenchmarkApplication.start(rows,
+                ctx -> ctx.getBeanFactory().addBeanPostProcessor(slowDatabase(dbLatency)), springArgs);
+        System.out.println(READY + context.getEnvironment().getProperty("local.server.port"));
+        System.out.flush();
+
+        while (System.in.read() >= 0) {
+            // Parent still running
+        }
+        context.close();
+        System.exit(0);
+    }
+
+    private static BeanPostProcessor slowDatabase(Duration latency) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || latency.isZero()) {
+                    return bean;
+                }
+                return ProxyDataSourceBuilder.create(beanName, dataSource)
+                        .beforeQuery((execInfo, queries) -> sleep(latency))
+                        .build();
+            }
+        };
+    }
+
+    private static void sleep(Duration latency) {
+        try {
+            Thread.sleep(latency);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package io.sherdor.todoapp.benchmarks;
+
+import io.sherdor.todoapp.dto.TodoDto;
+import io.sherdor.todoapp.enums.FsyncPolicy;
+import io.sherdor.todoapp.enums.Priority;
+import io.sherdor.todoapp.store.TodoLog;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Startup time of the in-memory store on the todo log: replaying every logged change, against loading a
+ * snapshot taken after the last one. Each run writes a history of updates to events / 10 todos.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class LogRecoveryBenchmark {
+    @Param({"1000000", "10000000"})
+    public int events;
+
+    @Param({"log", "snapshot"})
+    public String recoverFrom;
+
+    private Path directory;
+
+    @Setup
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("todo-log-benchmark");
+        int todos = events / 10;
+        TodoDto[] latest = new TodoDto[todos];
+        LocalDateTime createdAt = LocalDateTime.of(2025, 1, 1, 8, 0);
+        try (TodoLog log = new TodoLog(directory, FsyncPolicy.NEVER, Duration.ofSeconds(1))) {
+            log.recover((id, todo) -> {
+            });
+            long position = 0;
+            for (int i = 0; i < events; i++) {
+                int index = i % todos;
+                long version = i / todos;
+                TodoDto todo = new TodoDto(index + 1L, "Todo " + (index + 1), "Description of todo " + (index + 1),
+                        version % 2 == 1, Priority.values()[index % 4], createdAt,
+                        version == 0 ? null : createdAt.plusMinutes(version), createdAt.plusDays(index % 30),
+                        version);
+                latest[index] = todo;
+                position = log.record(todo.getId(), todo);
+            }
+            log.flush();
+            if (recoverFrom.equals("snapshot")) {
+                log.checkpoint(Arrays.asList(latest), position);
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        FileSystemUtils.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    public int recover() {
+        Map<Long, TodoDto> todos = new HashMap<>(events / 5);
+        try (TodoLog log = new TodoLog(directory, FsyncPolicy.NEVER, Duration.ofSeconds(1))) {
+            log.recover((id, todo) -> {
+                if (todo == null) {
+                    todos.remove(id);
+                } else {
+                    todos.put(id, todo);
+                }
+            });
+        }
+        return todos.size();
+    }
+}
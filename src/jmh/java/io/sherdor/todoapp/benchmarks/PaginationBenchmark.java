@@ -0,0 +1,71 @@
+package io.sherdor.todoapp.benchmarks;
+
+import io.sherdor.todoapp.dto.CursorPage;
+import io.sherdor.todoapp.dto.TodoDto;
+import io.sherdor.todoapp.service.TodoService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fetching page {@code page} of the full list by offset versus by keyset cursor. The offset cost grows
+ * with the page number; the cursor cost should not.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class PaginationBenchmark {
+    private static final int PAGE_SIZE = 50;
+
+    @Param("100000")
+    public int rows;
+
+    @Param({"0", "100", "1000"})
+    public int page;
+
+    private ConfigurableApplicationContext context;
+    private TodoService service;
+    private String cursor;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkApplication.start(rows);
+        service = context.getBean(TodoService.class);
+        // Walk to the requested page once; the benchmark then only pays for the last hop
+        for (int i = 0; i < page; i++) {
+            cursor = service.getAllTodos(PAGE_SIZE, cursor).getNextCursor();
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Slice<TodoDto> offsetPage() {
+        return service.getAllTodos(PageRequest.of(page, PAGE_SIZE));
+    }
+
+    @Benchmark
+    public CursorPage<TodoDto> keysetPage() {
+        return service.getAllTodos(PAGE_SIZE, cursor);
+    }
+}
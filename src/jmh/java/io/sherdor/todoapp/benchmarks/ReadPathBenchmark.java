@@ -0,0 +1,62 @@
+package io.sherdor.todoapp.benchmarks;
+
+import io.sherdor.todoapp.dto.TodoDto;
+import io.sherdor.todoapp.mappers.TodoMapper;
+import io.sherdor.todoapp.repositories.TodoRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loading every todo as managed entities mapped through MapStruct versus projecting straight into
+ * {@link TodoDto}. Run with {@code -prof gc} to see the allocation difference per row.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class ReadPathBenchmark {
+    @Param("100000")
+    public int rows;
+
+    private ConfigurableApplicationContext context;
+    private TodoRepository repository;
+    private TodoMapper mapper;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkApplication.start(rows);
+        repository = context.getBean(TodoRepository.class);
+        mapper = context.getBean(TodoMapper.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<TodoDto> entitiesMapped() {
+        return repository.findAll().stream().map(mapper::toDto).toList();
+    }
+
+    @Benchmark
+    public List<TodoDto> dtoProjection() {
+        return repository.findAllByOrderByIdAsc();
+    }
+}
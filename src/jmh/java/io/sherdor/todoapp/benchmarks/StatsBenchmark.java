@@ -0,0 +1,72 @@
+package io.sherdor.todoapp.benchmarks;
+
+import io.sherdor.todoapp.config.TodoStats;
+import io.sherdor.todoapp.repositories.TodoRepository;
+import io.sherdor.todoapp.service.TodoService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The three generations of {@code getStats()}: four counting round trips plus loading every overdue
+ * todo, one grouped aggregate query, and the in-memory counters served today.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class StatsBenchmark {
+    @Param({"10000", "100000", "1000000"})
+    public int rows;
+
+    private ConfigurableApplicationContext context;
+    private TodoRepository repository;
+    private TodoService service;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkApplication.start(rows);
+        repository = context.getBean(TodoRepository.class);
+        service = context.getBean(TodoService.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public long[] countQueriesAndOverdueLoad() {
+        long total = repository.count();
+        long completed = repository.countByCompletedTrue();
+        long active = repository.countByCompletedFalse();
+        long overdue = service.getOverdueTodos().size();
+        return new long[]{total, completed, active, overdue};
+    }
+
+    @Benchmark
+    public List<TodoRepository.PriorityCounts> groupedAggregate() {
+        return repository.countByPriority(LocalDateTime.now());
+    }
+
+    @Benchmark
+    public TodoStats inMemoryCounters() {
+        return service.getStats();
+    }
+}
@@ -0,0 +1,79 @@
+package io.sherdor.todoapp.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import io.sherdor.todoapp.dto.TodoDto;
+import io.sherdor.todoapp.enums.Priority;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson round trips of {@link TodoDto}, including its {@code @JsonFormat} dates, with the same
+ * builder defaults Spring MVC uses.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TodoJsonBenchmark {
+    private static final int PAGE_SIZE = 100;
+
+    private ObjectWriter todoWriter;
+    private ObjectWriter pageWriter;
+    private ObjectReader todoReader;
+    private TodoDto todo;
+    private List<TodoDto> page;
+    private byte[] todoJson;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        todoWriter = objectMapper.writerFor(TodoDto.class);
+        pageWriter = objectMapper.writerFor(objectMapper.getTypeFactory().constructCollectionType(List.class, TodoDto.class));
+        todoReader = objectMapper.readerFor(TodoDto.class);
+
+        LocalDateTime now = LocalDateTime.now();
+        page = new ArrayList<>(PAGE_SIZE);
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            page.add(new TodoDto((long) i, "Write report " + i, "Prepare monthly project report", i % 3 == 0,
+                    Priority.values()[i % Priority.values().length], now.minusDays(1), i % 3 == 0 ? now : null,
+                    now.plusDays(i % 7), 0L));
+        }
+        todo = page.getFirst();
+        todoJson = todoWriter.writeValueAsBytes(todo);
+    }
+
+    @Benchmark
+    public byte[] writeTodo() throws JsonProcessingException {
+        return todoWriter.writeValueAsBytes(todo);
+    }
+
+    @Benchmark
+    public byte[] writePage() throws JsonProcessingException {
+        return pageWriter.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public TodoDto readTodo() throws IOException {
+        return todoReader.readValue(todoJson);
+    }
+}
@@ -0,0 +1,66 @@
+package io.sherdor.todoapp.benchmarks;
+
+import io.sherdor.todoapp.dto.CreateTodoDto;
+import io.sherdor.todoapp.dto.TodoDto;
+import io.sherdor.todoapp.dto.UpdateTodoDto;
+import io.sherdor.todoapp.entity.Todo;
+import io.sherdor.todoapp.enums.Priority;
+import io.sherdor.todoapp.mappers.TodoMapper;
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TodoMapperBenchmark {
+    private final TodoMapper mapper = Mappers.getMapper(TodoMapper.class);
+    private final LocalDateTime now = LocalDateTime.now();
+
+    private final Todo todo = Todo.builder()
+            .id(42L)
+            .title("Write report")
+            .description("Prepare monthly project report")
+            .priority(Priority.URGENT)
+            .completed(false)
+            .createdAt(now.minusDays(1))
+            .dueDate(now.plusDays(1))
+            .build();
+    private final Todo target = Todo.builder()
+            .id(43L)
+            .title("Call doctor")
+            .priority(Priority.MEDIUM)
+            .createdAt(now.minusDays(2))
+            .build();
+    private final CreateTodoDto createDto = new CreateTodoDto("Buy groceries", "Milk, bread, eggs", 2, now.plusHours(3));
+    private final UpdateTodoDto updateDto = new UpdateTodoDto("Call doctor", "Book a check-up", 1, true, now.plusDays(2));
+
+    @Benchmark
+    public TodoDto toDto() {
+        return mapper.toDto(todo);
+    }
+
+    @Benchmark
+    public Todo toEntity() {
+        return mapper.toEntity(createDto);
+    }
+
+    @Benchmark
+    public Todo updateEntity() {
+        mapper.updateEntity(target, updateDto);
+        return target;
+    }
+}
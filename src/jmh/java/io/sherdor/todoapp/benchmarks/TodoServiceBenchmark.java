@@ -0,0 +1,76 @@
+package io.sherdor.todoapp.benchmarks;
+
+import io.sherdor.todoapp.config.TodoStats;
+import io.sherdor.todoapp.dto.TodoDto;
+import io.sherdor.todoapp.service.TodoService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The read calls behind the REST list endpoints and the main view, at a configurable table size.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class TodoServiceBenchmark {
+    @Param({"10000", "100000"})
+    public int rows;
+
+    private ConfigurableApplicationContext context;
+    private TodoService service;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkApplication.start(rows);
+        service = context.getBean(TodoService.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<TodoDto> getAllTodos() {
+        return service.getAllTodos();
+    }
+
+    @Benchmark
+    public List<TodoDto> getActiveTodos() {
+        return service.getActiveTodos();
+    }
+
+    @Benchmark
+    public Slice<TodoDto> getActiveTodosPage() {
+        return service.getActiveTodos(PageRequest.of(0, 50));
+    }
+
+    @Benchmark
+    public List<TodoDto> searchTodos() {
+        return service.searchTodos("report");
+    }
+
+    @Benchmark
+    public TodoStats getStats() {
+        return service.getStats();
+    }
+}
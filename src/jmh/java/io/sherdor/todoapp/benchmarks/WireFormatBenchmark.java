@@ -0,0 +1,98 @@
+package io.sherdor.todoapp.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import io.sherdor.todoapp.config.CborConfig;
+import io.sherdor.todoapp.dto.TodoDto;
+import io.sherdor.todoapp.enums.Priority;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * A page of todos as the REST API sends it: JSON with its {@code @JsonFormat} dates against compact CBOR,
+ * each raw and gzipped as Tomcat compresses large responses. Payload sizes are printed during setup.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WireFormatBenchmark {
+    @Param({"json", "cbor"})
+    public String format;
+
+    @Param({"false", "true"})
+    public boolean gzip;
+
+    @Param({"1000"})
+    public int rows;
+
+    private ObjectWriter writer;
+    private ObjectReader reader;
+    private List<TodoDto> page;
+    private byte[] encoded;
+
+    @Setup
+    public void setUp() throws IOException {
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json();
+        if (format.equals("cbor")) {
+            builder.factory(new CBORFactory()).postConfigurer(mapper -> mapper.registerModule(CborConfig.compactModule()));
+        }
+        ObjectMapper objectMapper = builder.build();
+        var pageType = objectMapper.getTypeFactory().constructCollectionType(List.class, TodoDto.class);
+        writer = objectMapper.writerFor(pageType);
+        reader = objectMapper.readerFor(pageType);
+
+        LocalDateTime now = LocalDateTime.now();
+        page = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            page.add(new TodoDto((long) i, "Write report " + i, i % 2 == 0 ? "Prepare monthly project report" : null,
+                    i % 3 == 0, Priority.values()[i % Priority.values().length], now.minusDays(1).plusSeconds(i),
+                    i % 3 == 0 ? now : null, now.plusDays(i % 7), 0L));
+        }
+        encoded = write();
+        System.out.printf("%n%s%s, %d todos: %d bytes%n", format, gzip ? " + gzip" : "", rows, encoded.length);
+    }
+
+    @Benchmark
+    public byte[] write() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(rows * 64);
+        try (OutputStream out = gzip ? new GZIPOutputStream(bytes) : bytes) {
+            writer.writeValue(out, page);
+        }
+        return bytes.toByteArray();
+    }
+
+    @Benchmark
+    public List<TodoDto> read() throws IOException {
+        try (InputStream in = gzip ? new GZIPInputStream(new ByteArrayInputStream(encoded))
+                : new ByteArrayInputStream(encoded)) {
+            return reader.readValue(in);
+        }
+    }
+}
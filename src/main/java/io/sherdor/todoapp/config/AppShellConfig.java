@@ -1,9 +1,11 @@
 package io.sherdor.todoapp.config;
 
 import com.vaadin.flow.component.page.AppShellConfigurator;
+import com.vaadin.flow.component.page.Push;
 import com.vaadin.flow.theme.Theme;
 import com.vaadin.flow.theme.lumo.Lumo;
 
+@Push
 @Theme(variant = Lumo.DARK)
 public class AppShellConfig implements AppShellConfigurator {
 }
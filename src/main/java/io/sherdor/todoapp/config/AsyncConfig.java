@@ -0,0 +1,37 @@
+package io.sherdor.todoapp.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Executors owned by the application. Tomcat, MVC async requests and {@code @Scheduled} jobs follow
+ * {@code spring.threads.virtual.enabled} through Spring Boot; these follow the same switch.
+ */
+@Configuration
+public class AsyncConfig {
+
+    // Background work started from the UI; virtual threads keep blocking queries off the session lock cheaply.
+    // Platform threads are a fixed pool with a bounded queue, so a burst of searches cannot grow the thread
+    // count without limit; submissions beyond the queue are rejected and the caller reports it.
+    @Bean(destroyMethod = "close")
+    public ExecutorService uiTaskExecutor(Environment environment,
+                                          @Value("${todo.ui.executor.threads:8}") int threads,
+                                          @Value("${todo.ui.executor.queue-capacity:100}") int queueCapacity) {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            return Executors.newVirtualThreadPerTaskExecutor();
+        }
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(queueCapacity), Thread.ofPlatform().name("ui-task-", 0).daemon().factory());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+}
@@ -0,0 +1,17 @@
+package io.sherdor.todoapp.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Result caches for read-only {@code TodoService} lookups. Caffeine size/TTL bounds and stats recording
+ * come from {@code spring.cache.caffeine.spec}; keys and eviction are described on {@code TodoCacheInvalidator}.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+    public static final String TODO_BY_ID = "todoById";
+    public static final String ACTIVE_TODOS = "activeTodos";
+    public static final String COMPLETED_TODOS = "completedTodos";
+    public static final String TODAY_TODOS = "todayTodos";
+}
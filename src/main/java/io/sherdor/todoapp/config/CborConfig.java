@@ -0,0 +1,83 @@
+package io.sherdor.todoapp.config;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import io.sherdor.todoapp.enums.Priority;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * Serves and accepts {@code application/cbor} next to JSON on the REST API, chosen by the Accept and
+ * Content-Type headers. CBOR is binary JSON, so the DTOs keep one shape, but the compact encoding drops the
+ * string forms JSON uses: date-times go out as epoch milliseconds (in the server's zone) instead of
+ * {@code "yyyy-MM-dd HH:mm"} strings, and priorities as their ordinal instead of their name.
+ */
+@Configuration
+public class CborConfig {
+
+    // Replaces the CBOR converter Spring MVC would register with a plain mapper
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory())
+                // Registered after the Java time module, so its serializers win over @JsonFormat patterns
+                .postConfigurer(mapper -> mapper.registerModule(compactModule()))
+                .build());
+    }
+
+    public static Module compactModule() {
+        return new SimpleModule("compact-todos")
+                .addSerializer(LocalDateTime.class, new EpochMillisSerializer())
+                .addDeserializer(LocalDateTime.class, new EpochMillisDeserializer())
+                .addSerializer(Priority.class, new PriorityOrdinalSerializer())
+                .addDeserializer(Priority.class, new PriorityOrdinalDeserializer());
+    }
+
+    private static class EpochMillisSerializer extends JsonSerializer<LocalDateTime> {
+        @Override
+        public void serialize(LocalDateTime value, JsonGenerator generator, SerializerProvider provider)
+                throws IOException {
+            generator.writeNumber(value.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+        }
+    }
+
+    private static class EpochMillisDeserializer extends JsonDeserializer<LocalDateTime> {
+        @Override
+        public LocalDateTime deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+            return LocalDateTime.ofInstant(Instant.ofEpochMilli(parser.getLongValue()), ZoneId.systemDefault());
+        }
+    }
+
+    private static class PriorityOrdinalSerializer extends JsonSerializer<Priority> {
+        @Override
+        public void serialize(Priority value, JsonGenerator generator, SerializerProvider provider)
+                throws IOException {
+            generator.writeNumber(value.ordinal());
+        }
+    }
+
+    private static class PriorityOrdinalDeserializer extends JsonDeserializer<Priority> {
+        @Override
+        public Priority deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+            int ordinal = parser.getIntValue();
+            try {
+                return Priority.fromOrdinal(ordinal);
+            } catch (IllegalArgumentException e) {
+                throw context.weirdNumberException(ordinal, Priority.class, "not a priority ordinal");
+            }
+        }
+    }
+}
@@ -2,7 +2,7 @@ package io.sherdor.todoapp.config;
 
 import io.sherdor.todoapp.entity.Todo;
 import io.sherdor.todoapp.enums.Priority;
-import io.sherdor.todoapp.repositories.TodoRepository;
+import io.sherdor.todoapp.store.TodoStore;
 import lombok.RequiredArgsConstructor;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.stereotype.Component;
@@ -14,12 +14,20 @@ import java.util.List;
 @Component
 @RequiredArgsConstructor
 public class DataInitializer implements CommandLineRunner {
-    private final TodoRepository todoRepository;
+    private final TodoStore store;
+    private final TodoDataGenerator generator;
+    private final TodoSeedProperties seedProperties;
 
     @Override
     public void run(String... args) throws Exception {
-        if (todoRepository.count() == 0) {
-            initializeTestData();
+        if (store.count() == 0) {
+            if (seedProperties.getRows() > 0) {
+                // Runs before ApplicationReadyEvent, so the stats tracker and search index pick the rows up
+                generator.generate(seedProperties.getRows());
+                store.reload();
+            } else {
+                initializeTestData();
+            }
         }
     }
 
@@ -98,6 +106,6 @@ public class DataInitializer implements CommandLineRunner {
                         .updatedAt(LocalDateTime.now().minusDays(2))
                         .build()
         );
-        todoRepository.saveAll(sampleTodos);
+        store.insertAll(sampleTodos);
     }
 }
@@ -0,0 +1,19 @@
+package io.sherdor.todoapp.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+@Configuration
+public class ReactiveConfig {
+    private static final int MAX_QUEUED_READS = 10_000;
+
+    // Blocking repository reads behind the /api/v2 streams. One thread per pooled connection: more threads
+    // would only wait on Hikari, and reads beyond that queue here without holding a thread.
+    @Bean(destroyMethod = "dispose")
+    public Scheduler todoReadScheduler(@Value("${spring.datasource.hikari.maximum-pool-size:10}") int poolSize) {
+        return Schedulers.newBoundedElastic(poolSize, MAX_QUEUED_READS, "todo-read");
+    }
+}
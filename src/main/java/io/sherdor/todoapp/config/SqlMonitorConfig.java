@@ -0,0 +1,62 @@
+package io.sherdor.todoapp.config;
+
+import io.sherdor.todoapp.monitoring.SqlBudgetFilter;
+import io.sherdor.todoapp.monitoring.SqlMonitor;
+import io.sherdor.todoapp.monitoring.VaadinSqlBudget;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Wraps the data source in a datasource-proxy that times every statement and counts the rows it reads or writes,
+ * and measures those counts per REST request and per Vaadin round-trip. Off unless {@code todo.sql.enabled=true}
+ * (the dev profile and the budget tests): proxying every {@code ResultSet.next()} costs each row read, so
+ * production runs on the raw Hikari pool.
+ */
+@Configuration
+@EnableConfigurationProperties(SqlMonitorProperties.class)
+@ConditionalOnProperty(name = "todo.sql.enabled", havingValue = "true")
+public class SqlMonitorConfig {
+
+    @Bean
+    public SqlMonitor sqlMonitor(SqlMonitorProperties properties) {
+        return new SqlMonitor(properties.getSlowQueryThreshold(), properties.getStatementBudget());
+    }
+
+    // Static so that post-processing the data source does not force this configuration to initialize early
+    @Bean
+    public static BeanPostProcessor monitoredDataSource(ObjectProvider<SqlMonitor> monitor) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || bean instanceof ProxyDataSource) {
+                    return bean;
+                }
+                SqlMonitor listener = monitor.getObject();
+                return ProxyDataSourceBuilder.create(beanName, dataSource)
+                        .listener(listener)
+                        .methodListener(listener)
+                        // Needed to see ResultSet.next(), which is how rows read are counted
+                        .proxyResultSet()
+                        .build();
+            }
+        };
+    }
+
+    @Bean
+    public SqlBudgetFilter sqlBudgetFilter(SqlMonitor monitor) {
+        return new SqlBudgetFilter(monitor);
+    }
+
+    @Bean
+    public VaadinSqlBudget vaadinSqlBudget(SqlMonitor monitor) {
+        return new VaadinSqlBudget(monitor);
+    }
+}
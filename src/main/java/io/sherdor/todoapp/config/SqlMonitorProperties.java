@@ -0,0 +1,21 @@
+package io.sherdor.todoapp.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Thresholds for the SQL monitor wrapped around the data source (see {@link SqlMonitorConfig}).
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "todo.sql")
+public class SqlMonitorProperties {
+    private boolean enabled = true;
+    // Statements taking at least this long are logged with their bound parameters
+    private Duration slowQueryThreshold = Duration.ofMillis(200);
+    // An HTTP request or Vaadin round-trip issuing more statements than this is logged as a likely N+1
+    private int statementBudget = 10;
+}
@@ -0,0 +1,23 @@
+package io.sherdor.todoapp.config;
+
+import io.sherdor.todoapp.enums.FsyncPolicy;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Settings of the write-ahead todo log behind the in-memory store (see {@link TodoStoreConfig}).
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "todo.store.log")
+public class TodoLogProperties {
+    // Holds the log segments and snapshots; created on startup
+    private Path directory = Path.of("data", "todo-log");
+    private FsyncPolicy fsync = FsyncPolicy.ALWAYS;
+    // Longest a write stays unsynced under FsyncPolicy.INTERVAL
+    private Duration fsyncInterval = Duration.ofMillis(100);
+}
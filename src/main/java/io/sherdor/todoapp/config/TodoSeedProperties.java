@@ -0,0 +1,42 @@
+package io.sherdor.todoapp.config;
+
+import io.sherdor.todoapp.enums.Priority;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Shape of the synthetic data set generated on startup (see {@code application-synthetic.yml}).
+ * With {@code rows} at 0 the hand-written sample todos are loaded instead.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "todo.seed")
+public class TodoSeedProperties {
+    private int rows = 0;
+    // Same seed, same data set (dates are relative to the start time)
+    private long randomSeed = 42;
+    private int batchSize = 5000;
+
+    private Map<Priority, Integer> priorityWeights = new EnumMap<>(Map.of(
+            Priority.LOW, 30,
+            Priority.MEDIUM, 40,
+            Priority.HIGH, 20,
+            Priority.URGENT, 10));
+    private double completedRatio = 0.3;
+
+    // Creation times are spread over this window before now
+    private Duration history = Duration.ofDays(90);
+    private double dueDateRatio = 0.8;
+    // Due dates are spread from now - dueWindowPast to now + dueWindowFuture
+    private Duration dueWindowPast = Duration.ofDays(30);
+    private Duration dueWindowFuture = Duration.ofDays(60);
+
+    private double descriptionRatio = 0.7;
+    // Description lengths are log-normal around this median, capped at the column size
+    private int medianDescriptionLength = 90;
+}
@@ -1,12 +1,25 @@
 package io.sherdor.todoapp.config;
 
+import io.sherdor.todoapp.enums.Priority;
 import lombok.Builder;
-import lombok.Data;
+import lombok.Value;
 
-@Data
+import java.util.Map;
+
+@Value
 @Builder
 public class TodoStats {
-    private long totalTodos;
-    private long completedTodos;
-    private long activeTodos;
-    private long overdueTodos;}
+    long totalTodos;
+    long completedTodos;
+    long activeTodos;
+    long overdueTodos;
+    Map<Priority, PriorityStats> byPriority;
+
+    @Value
+    public static class PriorityStats {
+        long total;
+        long completed;
+        long active;
+        long overdue;
+    }
+}
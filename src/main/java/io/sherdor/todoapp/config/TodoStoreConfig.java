@@ -0,0 +1,36 @@
+package io.sherdor.todoapp.config;
+
+import io.sherdor.todoapp.store.DatabaseJournal;
+import io.sherdor.todoapp.store.TodoJournal;
+import io.sherdor.todoapp.store.TodoLog;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Picks the journal that keeps the in-memory store durable: write-behind to the database by default, or a
+ * local write-ahead log with {@code todo.store.journal=log}.
+ */
+@Configuration
+@EnableConfigurationProperties(TodoLogProperties.class)
+@ConditionalOnProperty(name = "todo.store.mode", havingValue = "memory")
+public class TodoStoreConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "todo.store.journal", havingValue = "database", matchIfMissing = true)
+    public TodoJournal databaseJournal(JdbcTemplate jdbc, TransactionTemplate transaction,
+                                       @Value("${todo.store.flush-batch-size:1000}") int batchSize) {
+        return new DatabaseJournal(jdbc, transaction, batchSize);
+    }
+
+    // Closed on shutdown, after the store has written its last checkpoint
+    @Bean
+    @ConditionalOnProperty(name = "todo.store.journal", havingValue = "log")
+    public TodoLog todoLog(TodoLogProperties properties) {
+        return new TodoLog(properties.getDirectory(), properties.getFsync(), properties.getFsyncInterval());
+    }
+}
@@ -3,17 +3,35 @@ package io.sherdor.todoapp.controller;
 
 import io.sherdor.todoapp.config.TodoStats;
 import io.sherdor.todoapp.dto.CreateTodoDto;
+import io.sherdor.todoapp.dto.CursorPage;
+import io.sherdor.todoapp.dto.ImportReport;
 import io.sherdor.todoapp.dto.TodoDto;
 import io.sherdor.todoapp.dto.UpdateTodoDto;
+import io.sherdor.todoapp.enums.DataFormat;
+import io.sherdor.todoapp.events.TodoChangeFeed;
 import io.sherdor.todoapp.mappers.TodoMapper;
 import io.sherdor.todoapp.repositories.TodoRepository;
+import io.sherdor.todoapp.service.TodoExporter;
+import io.sherdor.todoapp.service.TodoImporter;
 import io.sherdor.todoapp.service.TodoService;
+import io.sherdor.todoapp.service.TodoVersions;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/api/todos")
@@ -23,29 +41,68 @@ public class TodoController {
     private final TodoRepository repository;
     private final TodoService service;
     private final TodoMapper mapper;
+    private final TodoExporter exporter;
+    private final TodoImporter importer;
+    private final TodoChangeFeed changeFeed;
+    private final TodoVersions versions;
 
     @GetMapping
-    public ResponseEntity<List<TodoDto>> getAllTodos() {
-        List<TodoDto> todos = service.getAllTodos();
-        return ResponseEntity.ok(todos);
+    public ResponseEntity<List<TodoDto>> getAllTodos(WebRequest request) {
+        return ifModified(request, versions.listTag(), service::getAllTodos);
+    }
+
+    @GetMapping(params = "limit")
+    public ResponseEntity<CursorPage<TodoDto>> getAllTodos(@RequestParam int limit,
+                                                           @RequestParam(required = false) String cursor,
+                                                           WebRequest request) {
+        return ifModified(request, versions.listTag(), () -> service.getAllTodos(limit, cursor));
     }
 
     @GetMapping("/active")
-    public ResponseEntity<List<TodoDto>> getActiveTodos() {
-        List<TodoDto> todos = service.getActiveTodos();
-        return ResponseEntity.ok(todos);
+    public ResponseEntity<List<TodoDto>> getActiveTodos(WebRequest request) {
+        return ifModified(request, versions.listTag(), service::getActiveTodos);
+    }
+
+    @GetMapping(value = "/active", params = "limit")
+    public ResponseEntity<CursorPage<TodoDto>> getActiveTodos(@RequestParam int limit,
+                                                              @RequestParam(required = false) String cursor,
+                                                              WebRequest request) {
+        return ifModified(request, versions.listTag(), () -> service.getActiveTodos(limit, cursor));
     }
 
     @GetMapping("/completed")
-    public ResponseEntity<List<TodoDto>> getCompletedTodos() {
-        List<TodoDto> todos = service.getCompletedTodos();
-        return ResponseEntity.ok(todos);
+    public ResponseEntity<List<TodoDto>> getCompletedTodos(WebRequest request) {
+        return ifModified(request, versions.listTag(), service::getCompletedTodos);
+    }
+
+    @GetMapping(value = "/completed", params = "limit")
+    public ResponseEntity<CursorPage<TodoDto>> getCompletedTodos(@RequestParam int limit,
+                                                                 @RequestParam(required = false) String cursor,
+                                                                 WebRequest request) {
+        return ifModified(request, versions.listTag(), () -> service.getCompletedTodos(limit, cursor));
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportTodos(@RequestParam(defaultValue = "ndjson") String format) {
+        var exportFormat = DataFormat.fromParam(format);
+        StreamingResponseBody body = out -> exporter.export(exportFormat, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=todos." + exportFormat.getExtension())
+                .body(body);
+    }
+
+    @GetMapping(value = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<Object>> streamChanges(
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return changeFeed.subscribe(lastEventId);
     }
 
     @GetMapping("/{id}")
     public ResponseEntity<TodoDto> getTodoById(@PathVariable Long id) {
         var todo = service.getById(id);
-        return ResponseEntity.ok(todo);
+        // Spring answers a matching If-None-Match with 304 before writing the body
+        return ResponseEntity.ok().eTag(TodoVersions.tag(todo)).varyBy(HttpHeaders.ACCEPT).body(todo);
     }
 
     @PostMapping
@@ -54,6 +111,19 @@ public class TodoController {
         return ResponseEntity.status(HttpStatus.CREATED).body(createdTodo);
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<List<TodoDto>> createTodos(@RequestBody List<@Valid CreateTodoDto> todos) {
+        var createdTodos = service.createTodos(todos);
+        return ResponseEntity.status(HttpStatus.CREATED).body(createdTodos);
+    }
+
+    @PostMapping("/import")
+    public ResponseEntity<ImportReport> importTodos(@RequestParam(defaultValue = "ndjson") String format,
+                                                    InputStream body) throws IOException {
+        var report = importer.importTodos(DataFormat.fromParam(format), body);
+        return ResponseEntity.ok(report);
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<TodoDto> updateTodo(@PathVariable Long id, @Valid @RequestBody UpdateTodoDto todoDto) {
         var updatedTodo = service.updateTodo(id, todoDto);
@@ -66,6 +136,12 @@ public class TodoController {
         return ResponseEntity.noContent().build();
     }
 
+    @DeleteMapping
+    public ResponseEntity<Void> deleteTodos(@RequestParam List<Long> ids) {
+        service.deleteTodos(ids);
+        return ResponseEntity.noContent().build();
+    }
+
     @PatchMapping("/{id}/complete")
     public ResponseEntity<TodoDto> completeTodo(@PathVariable Long id) {
         var completed = service.toggleCompleted(id, true);
@@ -78,28 +154,72 @@ public class TodoController {
         return ResponseEntity.ok().body(completed);
     }
 
+    @PatchMapping("/complete")
+    public ResponseEntity<List<TodoDto>> completeTodos(@RequestBody List<Long> ids) {
+        var completed = service.toggleCompleted(ids, true);
+        return ResponseEntity.ok().body(completed);
+    }
+
+    @PatchMapping("/incomplete")
+    public ResponseEntity<List<TodoDto>> incompleteTodos(@RequestBody List<Long> ids) {
+        var completed = service.toggleCompleted(ids, false);
+        return ResponseEntity.ok().body(completed);
+    }
+
     @GetMapping("search")
-    public ResponseEntity<List<TodoDto>> searchTodo(@RequestParam String search) {
-        List<TodoDto> todos = service.searchTodos(search);
-        return ResponseEntity.ok().body(todos);
+    public ResponseEntity<List<TodoDto>> searchTodo(@RequestParam String search, WebRequest request) {
+        return ifModified(request, versions.listTag(), () -> service.searchTodos(search));
+    }
+
+    @GetMapping(value = "search", params = "limit")
+    public ResponseEntity<CursorPage<TodoDto>> searchTodo(@RequestParam String search, @RequestParam int limit,
+                                                          @RequestParam(required = false) String cursor,
+                                                          WebRequest request) {
+        return ifModified(request, versions.listTag(), () -> service.searchTodos(search, limit, cursor));
     }
 
     @GetMapping("overdue")
-    public ResponseEntity<List<TodoDto>> getOverdueTodos() {
-        var overdue = service.getOverdueTodos();
-        return ResponseEntity.ok().body(overdue);
+    public ResponseEntity<List<TodoDto>> getOverdueTodos(WebRequest request) {
+        return ifModified(request, versions.overdueTag(), service::getOverdueTodos);
+    }
+
+    @GetMapping(value = "overdue", params = "limit")
+    public ResponseEntity<CursorPage<TodoDto>> getOverdueTodos(@RequestParam int limit,
+                                                               @RequestParam(required = false) String cursor,
+                                                               WebRequest request) {
+        return ifModified(request, versions.overdueTag(), () -> service.getOverdueTodos(limit, cursor));
     }
 
     @GetMapping("/today")
-    public ResponseEntity<List<TodoDto>> getTodayTodos() {
-        var today = service.getTodayTodos();
-        return ResponseEntity.ok().body(today);
+    public ResponseEntity<List<TodoDto>> getTodayTodos(WebRequest request) {
+        return ifModified(request, versions.todayTag(), service::getTodayTodos);
+    }
 
+    @GetMapping(value = "/today", params = "limit")
+    public ResponseEntity<CursorPage<TodoDto>> getTodayTodos(@RequestParam int limit,
+                                                             @RequestParam(required = false) String cursor,
+                                                             WebRequest request) {
+        return ifModified(request, versions.todayTag(), () -> service.getTodayTodos(limit, cursor));
     }
 
     @GetMapping("/stats")
-    public ResponseEntity<TodoStats> getStats() {
-        var stats = service.getStats();
-        return ResponseEntity.ok().body(stats);
+    public ResponseEntity<TodoStats> getStats(WebRequest request) {
+        return ifModified(request, versions.overdueTag(), service::getStats);
+    }
+
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<String> handleConflict(OptimisticLockingFailureException ex) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body("Todo was modified concurrently, reload and retry");
+    }
+
+    // The tag is checked before the body is loaded, so an unchanged poll costs no query and no serialization.
+    // No Last-Modified: If-Modified-Since only has whole-second precision, so a second write within the same
+    // second would be answered with 304.
+    private <T> ResponseEntity<T> ifModified(WebRequest request, String etag, Supplier<T> body) {
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        // Served as JSON or CBOR under one tag, so caches must key on the Accept header too
+        return ResponseEntity.ok().eTag(etag).varyBy(HttpHeaders.ACCEPT).body(body.get());
     }
 }
\ No newline at end of file
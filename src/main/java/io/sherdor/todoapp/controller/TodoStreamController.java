@@ -0,0 +1,66 @@
+package io.sherdor.todoapp.controller;
+
+import io.sherdor.todoapp.config.TodoStats;
+import io.sherdor.todoapp.dto.TodoDto;
+import io.sherdor.todoapp.service.ReactiveTodoService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Read-only v2 API for high fan-out clients. Lists are streamed one todo per event as Server-Sent Events, or one
+ * per line with {@code Accept: application/x-ndjson}, and written as the connection drains instead of being
+ * buffered into one JSON array.
+ */
+@RestController
+@RequestMapping("/api/v2/todos")
+@RequiredArgsConstructor
+public class TodoStreamController {
+    private final ReactiveTodoService service;
+
+    @GetMapping(produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+    public Flux<TodoDto> getAllTodos() {
+        return service.getAllTodos();
+    }
+
+    @GetMapping(value = "/active", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+    public Flux<TodoDto> getActiveTodos() {
+        return service.getActiveTodos();
+    }
+
+    @GetMapping(value = "/completed", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+    public Flux<TodoDto> getCompletedTodos() {
+        return service.getCompletedTodos();
+    }
+
+    @GetMapping(value = "/overdue", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+    public Flux<TodoDto> getOverdueTodos() {
+        return service.getOverdueTodos();
+    }
+
+    @GetMapping(value = "/today", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+    public Flux<TodoDto> getTodayTodos() {
+        return service.getTodayTodos();
+    }
+
+    @GetMapping(value = "/search", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+    public Flux<TodoDto> searchTodos(@RequestParam String search) {
+        return service.searchTodos(search);
+    }
+
+    @GetMapping("/{id}")
+    public Mono<TodoDto> getTodoById(@PathVariable Long id) {
+        return service.getById(id);
+    }
+
+    @GetMapping("/stats")
+    public Mono<TodoStats> getStats() {
+        return service.getStats();
+    }
+}
@@ -1,6 +1,8 @@
     package io.sherdor.todoapp.dto;
 
     import com.fasterxml.jackson.annotation.JsonFormat;
+    import jakarta.validation.constraints.Max;
+    import jakarta.validation.constraints.Min;
     import jakarta.validation.constraints.NotBlank;
     import jakarta.validation.constraints.NotNull;
     import jakarta.validation.constraints.Size;
@@ -18,6 +20,8 @@
         String description;
 
         @NotNull(message = "Priority is required")
+        @Min(message = "Priority must be between 0 and 3", value = 0)
+        @Max(message = "Priority must be between 0 and 3", value = 3)
         Integer priority;
 
         @JsonFormat(pattern = "yyyy-MM-dd HH:mm")
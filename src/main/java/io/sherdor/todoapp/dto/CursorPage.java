@@ -0,0 +1,14 @@
+package io.sherdor.todoapp.dto;
+
+import lombok.Value;
+
+import java.util.List;
+
+@Value
+public class CursorPage<T> {
+
+    List<T> items;
+
+    // Opaque token for the next page, null when this is the last one
+    String nextCursor;
+}
@@ -0,0 +1,24 @@
+package io.sherdor.todoapp.dto;
+
+import lombok.Value;
+
+import java.util.List;
+
+@Value
+public class ImportReport {
+    long rowsRead;
+    long rowsImported;
+    long rowsRejected;
+    long chunksCommitted;
+    long elapsedMillis;
+    double rowsPerSecond;
+
+    // The first rejected rows only, so a broken file cannot blow up the report
+    List<RowError> errors;
+
+    @Value
+    public static class RowError {
+        long line;
+        String message;
+    }
+}
@@ -1,6 +1,7 @@
 package io.sherdor.todoapp.dto;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import io.sherdor.todoapp.enums.Priority;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
@@ -31,4 +32,8 @@ public class TodoDto{
 
     @JsonFormat(pattern = "yyyy-MM-dd HH:mm")
     LocalDateTime dueDate;
+
+    // Sent as the ETag header rather than in the body
+    @JsonIgnore
+    Long version;
 }
\ No newline at end of file
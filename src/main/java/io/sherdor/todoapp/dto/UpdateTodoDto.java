@@ -1,5 +1,7 @@
 package io.sherdor.todoapp.dto;
 
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import lombok.Value;
 
 import java.time.LocalDateTime;
@@ -9,6 +11,8 @@ public class UpdateTodoDto {
 
     String title;
     String description;
+    @Min(message = "Priority must be between 0 and 3", value = 0)
+    @Max(message = "Priority must be between 0 and 3", value = 3)
     Integer priority;
     Boolean completed;
     LocalDateTime dueDate;
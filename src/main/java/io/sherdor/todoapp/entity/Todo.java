@@ -5,18 +5,30 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "todos")
+// Mirrors the indexes created by the db/migration scripts, which own the schema
+@Table(name = "todos", indexes = {
+        @Index(name = "idx_todos_completed_priority", columnList = "completed, priority, id"),
+        @Index(name = "idx_todos_completed_updated_at", columnList = "completed, updated_at, id"),
+        @Index(name = "idx_todos_completed_due_date", columnList = "completed, due_date, id"),
+        @Index(name = "idx_todos_priority_completed_due_date", columnList = "priority, completed, due_date")
+})
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Getter
 @Setter
 @AllArgsConstructor
 @NoArgsConstructor
 @Builder
 public class Todo {
+    // A pooled sequence hands out ids in blocks, which lets Hibernate batch inserts (IDENTITY cannot)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "todo_seq")
+    @SequenceGenerator(name = "todo_seq", sequenceName = "todos_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank(message = "Title cannot be empty")
@@ -43,6 +55,10 @@ public class Todo {
     @Column(name = "due_date")
     private LocalDateTime dueDate;
 
+    // Incremented on every update, bulk ones included; doubles as the todo's ETag
+    @Version
+    private Long version;
+
     @PreUpdate
     private void setUpdatedAt() {
         this.updatedAt = LocalDateTime.now();
@@ -0,0 +1,13 @@
+package io.sherdor.todoapp.enums;
+
+/**
+ * When the todo log forces its writes to disk, trading durability against write latency.
+ */
+public enum FsyncPolicy {
+    // Every write waits for its fsync; concurrent writes share one
+    ALWAYS,
+    // Writes return once in the OS page cache and are synced within the interval; a power loss can drop that much
+    INTERVAL,
+    // Left to the OS; survives a JVM crash, not a power loss
+    NEVER
+}
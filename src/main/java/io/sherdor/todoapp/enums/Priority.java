@@ -6,6 +6,9 @@ public enum Priority {
     HIGH("High"),
     URGENT("Urgent");
 
+    // values() copies the array on every call
+    private static final Priority[] VALUES = values();
+
     private final String displayName;
 
     Priority(String displayName) {
@@ -14,5 +17,12 @@ public enum Priority {
     public String getDisplayName() {
         return displayName;
     }
+
+    public static Priority fromOrdinal(int ordinal) {
+        if (ordinal < 0 || ordinal >= VALUES.length) {
+            throw new IllegalArgumentException("Unknown priority: " + ordinal);
+        }
+        return VALUES[ordinal];
+    }
 }
 
@@ -0,0 +1,8 @@
+package io.sherdor.todoapp.enums;
+
+public enum TodoChangeType {
+    CREATED,
+    UPDATED,
+    TOGGLED,
+    DELETED
+}
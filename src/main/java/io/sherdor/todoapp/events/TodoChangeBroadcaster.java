@@ -0,0 +1,67 @@
+package io.sherdor.todoapp.events;
+
+import com.vaadin.flow.shared.Registration;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+/**
+ * Fans committed {@link TodoChangedEvent}s out to every open UI.
+ * <p>
+ * Delivery happens on a single dispatcher thread, so each listener sees the changes in commit order
+ * and the committing request never waits for a UI. Listeners receive the changes of one write: a single
+ * change, or all rows of a {@link TodosChangedEvent} at once.
+ */
+@Slf4j
+@Component
+public class TodoChangeBroadcaster {
+    private final Set<Consumer<List<TodoChangedEvent>>> listeners = ConcurrentHashMap.newKeySet();
+    private final ExecutorService dispatcher;
+
+    public TodoChangeBroadcaster(Environment environment) {
+        Thread.Builder thread = Threading.VIRTUAL.isActive(environment) ? Thread.ofVirtual() : Thread.ofPlatform().daemon();
+        dispatcher = Executors.newSingleThreadExecutor(thread.name("todo-change-dispatcher").factory());
+    }
+
+    public Registration register(Consumer<List<TodoChangedEvent>> listener) {
+        listeners.add(listener);
+        return () -> listeners.remove(listener);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTodoChanged(TodoChangedEvent event) {
+        dispatch(List.of(event));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTodosChanged(TodosChangedEvent event) {
+        dispatch(event.getChanges());
+    }
+
+    private void dispatch(List<TodoChangedEvent> changes) {
+        dispatcher.execute(() -> {
+            for (Consumer<List<TodoChangedEvent>> listener : listeners) {
+                try {
+                    listener.accept(changes);
+                } catch (RuntimeException ex) {
+                    log.warn("Todo change listener failed", ex);
+                }
+            }
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        dispatcher.shutdownNow();
+    }
+}
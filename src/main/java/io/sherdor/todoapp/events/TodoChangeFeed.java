@@ -0,0 +1,237 @@
+package io.sherdor.todoapp.events;
+
+import io.sherdor.todoapp.dto.TodoDto;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.concurrent.Queues;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Server-Sent Events feed of committed {@link TodoChangedEvent}s for REST clients.
+ * <p>
+ * Every change gets the next sequence number as its event id and is kept in a ring buffer of the last
+ * {@code todo.changes.buffer-size} changes, so a client reconnecting with {@code Last-Event-ID} is first sent
+ * what it missed. Sequence numbers restart with the process, so ids are prefixed with the start time
+ * ({@code <epoch>-<sequence>}). A client whose id is no longer buffered, or comes from an earlier run, gets a
+ * {@code reset} event and has to reload. A batch write ({@link TodosChangedEvent}) is sent as one {@code reset} too, rather
+ * than a change per row. Resets are sent at most once per {@code todo.changes.reset-window}: the batches that
+ * follow one within the window share a single reset at its end, so a chunked import does not make every client
+ * reload once per chunk. Each subscriber has its own bounded queue; one that falls behind is disconnected
+ * and resumes from the buffer when it reconnects, rather than holding up the writer or the other clients.
+ */
+@Component
+public class TodoChangeFeed {
+    public static final String RESET = "reset";
+
+    private static final ServerSentEvent<Object> HEARTBEAT = ServerSentEvent.builder().comment("heartbeat").build();
+
+    private final ServerSentEvent<Object>[] ring;
+    private final int subscriberBuffer;
+    private final long resetWindowNanos;
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    // Guards lastSequence, ring and subscribers, so a new subscriber's replay and its live events never overlap
+    private final Lock lock = new ReentrantLock();
+    private final Set<Sinks.Many<ServerSentEvent<Object>>> subscribers = new HashSet<>();
+    private long lastSequence;
+    private long lastResetNanos;
+    private boolean resetPending;
+
+    @SuppressWarnings("unchecked")
+    public TodoChangeFeed(@Value("${todo.changes.buffer-size:1000}") int bufferSize,
+                          @Value("${todo.changes.subscriber-buffer:256}") int subscriberBuffer,
+                          @Value("${todo.changes.reset-window:PT1S}") Duration resetWindow) {
+        if (bufferSize < 1) {
+            throw new IllegalArgumentException("todo.changes.buffer-size must be at least 1, was " + bufferSize);
+        }
+        this.ring = new ServerSentEvent[bufferSize];
+        this.subscriberBuffer = subscriberBuffer;
+        this.resetWindowNanos = resetWindow.toNanos();
+        this.lastResetNanos = System.nanoTime() - resetWindowNanos;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTodoChanged(TodoChangedEvent event) {
+        TodoDto todo = event.getAfter() != null ? event.getAfter() : event.getBefore();
+        lock.lock();
+        try {
+            long sequence = ++lastSequence;
+            ServerSentEvent<Object> change = ServerSentEvent.builder()
+                    .id(eventId(sequence))
+                    .event(event.getType().name().toLowerCase(Locale.ROOT))
+                    .data(todo)
+                    .build();
+            ring[(int) (sequence % ring.length)] = change;
+            publish(change);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTodosChanged(TodosChangedEvent event) {
+        lock.lock();
+        try {
+            if (!resetPending && System.nanoTime() - lastResetNanos >= resetWindowNanos) {
+                publishReset();
+            } else {
+                resetPending = true;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Sends the reset held back for the batches written since the last one
+    @Scheduled(fixedDelayString = "${todo.changes.reset-window:PT1S}")
+    public void flushReset() {
+        lock.lock();
+        try {
+            if (resetPending) {
+                publishReset();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Keeps idle connections open through proxies and notices clients that have gone away
+    @Scheduled(fixedDelayString = "${todo.changes.heartbeat:PT15S}")
+    public void heartbeat() {
+        lock.lock();
+        try {
+            publish(HEARTBEAT);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Published before the web server's graceful shutdown, which would otherwise wait for these endless streams
+    @EventListener(ContextClosedEvent.class)
+    public void completeAll() {
+        lock.lock();
+        try {
+            subscribers.forEach(Sinks.Many::tryEmitComplete);
+            subscribers.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Live changes, preceded by those after {@code lastEventId} when it is given.
+     */
+    public Flux<ServerSentEvent<Object>> subscribe(String lastEventId) {
+        return Flux.defer(() -> {
+            Sinks.Many<ServerSentEvent<Object>> sink = Sinks.many().unicast()
+                    .onBackpressureBuffer(Queues.<ServerSentEvent<Object>>get(subscriberBuffer).get());
+            List<ServerSentEvent<Object>> missed;
+            lock.lock();
+            try {
+                missed = lastEventId == null ? List.of() : missedSince(lastEventId);
+                subscribers.add(sink);
+            } finally {
+                lock.unlock();
+            }
+            return Flux.fromIterable(missed)
+                    .concatWith(sink.asFlux())
+                    .doFinally(signal -> unsubscribe(sink))
+                    // Writing to a slow client blocks; keep that off the committing thread
+                    .publishOn(Schedulers.boundedElastic());
+        });
+    }
+
+    public String getLastEventId() {
+        lock.lock();
+        try {
+            return eventId(lastSequence);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private List<ServerSentEvent<Object>> missedSince(String lastEventId) {
+        long seen = sequenceOf(lastEventId);
+        long oldest = Math.max(lastSequence - ring.length + 1, 1);
+        if (seen < 0 || seen > lastSequence || seen < oldest - 1) {
+            return List.of(reset(lastSequence));
+        }
+        List<ServerSentEvent<Object>> missed = new ArrayList<>((int) (lastSequence - seen));
+        for (long sequence = seen + 1; sequence <= lastSequence; sequence++) {
+            missed.add(ring[(int) (sequence % ring.length)]);
+        }
+        return missed;
+    }
+
+    private String eventId(long sequence) {
+        return epoch + "-" + sequence;
+    }
+
+    // The sequence number of an id issued by this process, or -1 for one from an earlier run or a malformed one
+    private long sequenceOf(String eventId) {
+        if (!eventId.startsWith(epoch) || eventId.length() <= epoch.length() + 1
+                || eventId.charAt(epoch.length()) != '-') {
+            return -1;
+        }
+        try {
+            return Long.parseLong(eventId, epoch.length() + 1, eventId.length(), 10);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    // Caller holds the lock
+    private void publishReset() {
+        long sequence = ++lastSequence;
+        ServerSentEvent<Object> reset = reset(sequence);
+        ring[(int) (sequence % ring.length)] = reset;
+        publish(reset);
+        lastResetNanos = System.nanoTime();
+        resetPending = false;
+    }
+
+    private ServerSentEvent<Object> reset(long sequence) {
+        return ServerSentEvent.builder()
+                .id(eventId(sequence))
+                .event(RESET)
+                .data(sequence)
+                .build();
+    }
+
+    // Caller holds the lock, which also serializes emissions into each sink
+    private void publish(ServerSentEvent<Object> event) {
+        subscribers.removeIf(sink -> {
+            Sinks.EmitResult result = sink.tryEmitNext(event);
+            if (result == Sinks.EmitResult.FAIL_OVERFLOW) {
+                // Too far behind: end the stream after what is queued; the client resumes via Last-Event-ID
+                sink.tryEmitComplete();
+                return true;
+            }
+            return result.isFailure();
+        });
+    }
+
+    private void unsubscribe(Sinks.Many<ServerSentEvent<Object>> sink) {
+        lock.lock();
+        try {
+            subscribers.remove(sink);
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package io.sherdor.todoapp.events;
+
+import io.sherdor.todoapp.dto.TodoDto;
+import io.sherdor.todoapp.enums.TodoChangeType;
+import lombok.Value;
+
+/**
+ * Published by {@code TodoService} for every write. {@code before} is null for creations,
+ * {@code after} is null for deletions.
+ */
+@Value
+public class TodoChangedEvent {
+    TodoChangeType type;
+    TodoDto before;
+    TodoDto after;
+
+    public static TodoChangedEvent created(TodoDto after) {
+        return new TodoChangedEvent(TodoChangeType.CREATED, null, after);
+    }
+
+    public static TodoChangedEvent updated(TodoDto before, TodoDto after) {
+        return new TodoChangedEvent(TodoChangeType.UPDATED, before, after);
+    }
+
+    public static TodoChangedEvent toggled(TodoDto before, TodoDto after) {
+        return new TodoChangedEvent(TodoChangeType.TOGGLED, before, after);
+    }
+
+    public static TodoChangedEvent deleted(TodoDto before) {
+        return new TodoChangedEvent(TodoChangeType.DELETED, before, null);
+    }
+
+    public Long getTodoId() {
+        return after != null ? after.getId() : before.getId();
+    }
+}
@@ -0,0 +1,16 @@
+package io.sherdor.todoapp.events;
+
+import io.sherdor.todoapp.enums.TodoChangeType;
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * Published by {@code TodoService} once per batch write in place of a {@link TodoChangedEvent} per row, so a
+ * large import or bulk action costs each listener one notification instead of thousands.
+ */
+@Value
+public class TodosChangedEvent {
+    TodoChangeType type;
+    List<TodoChangedEvent> changes;
+}
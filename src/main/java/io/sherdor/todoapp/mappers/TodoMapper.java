@@ -4,8 +4,13 @@ import io.sherdor.todoapp.dto.CreateTodoDto;
 import io.sherdor.todoapp.dto.TodoDto;
 import io.sherdor.todoapp.dto.UpdateTodoDto;
 import io.sherdor.todoapp.entity.Todo;
+import io.sherdor.todoapp.enums.Priority;
 import org.mapstruct.*;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
 @Mapper(componentModel = "spring", nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
 public interface TodoMapper {
     TodoDto toDto(Todo todo);
@@ -13,20 +18,53 @@ public interface TodoMapper {
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "createdAt", ignore = true)
     @Mapping(target = "updatedAt", ignore = true)
+    @Mapping(target = "version", ignore = true)
     Todo toEntity(TodoDto todoDto);
 
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "createdAt", ignore = true)
     @Mapping(target = "updatedAt", ignore = true)
+    @Mapping(target = "version", ignore = true)
     void updateEntity(TodoDto todoDto, @MappingTarget Todo todo);
 
+    default Todo toEntity(CreateTodoDto createTodoDto) {
+        return toEntity(createTodoDto, LocalDateTime.now());
+    }
+
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "completed", constant = "false")
-    @Mapping(target = "createdAt", expression = "java(java.time.LocalDateTime.now())")
+    @Mapping(target = "createdAt", source = "createdAt")
     @Mapping(target = "updatedAt", ignore = true)
-    Todo toEntity(CreateTodoDto createTodoDto);
+    @Mapping(target = "version", ignore = true)
+    Todo toEntity(CreateTodoDto createTodoDto, LocalDateTime createdAt);
 
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "createdAt", ignore = true)
     @Mapping(target = "updatedAt", expression = "java(java.time.LocalDateTime.now())")
-    void updateEntity(@MappingTarget Todo todo, UpdateTodoDto updateTodoDto);}
\ No newline at end of file
+    @Mapping(target = "version", ignore = true)
+    void updateEntity(@MappingTarget Todo todo, UpdateTodoDto updateTodoDto);
+
+    // Used by the generated methods for CreateTodoDto and UpdateTodoDto priorities
+    default Priority toPriority(Integer ordinal) {
+        return ordinal == null ? null : Priority.fromOrdinal(ordinal);
+    }
+
+    // Batch paths: a pre-sized list filled in one loop, rather than a stream pipeline per call
+    default List<TodoDto> toDtos(List<Todo> todos) {
+        List<TodoDto> dtos = new ArrayList<>(todos.size());
+        for (Todo todo : todos) {
+            dtos.add(toDto(todo));
+        }
+        return dtos;
+    }
+
+    // One creation time for the whole batch, which also saves reading the clock per todo
+    default List<Todo> toEntities(List<CreateTodoDto> createTodoDtos) {
+        LocalDateTime createdAt = LocalDateTime.now();
+        List<Todo> todos = new ArrayList<>(createTodoDtos.size());
+        for (CreateTodoDto createTodoDto : createTodoDtos) {
+            todos.add(toEntity(createTodoDto, createdAt));
+        }
+        return todos;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,36 @@
+package io.sherdor.todoapp.monitoring;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Measures the SQL issued by each REST request. Vaadin requests are measured by {@link VaadinSqlBudget},
+ * which also sees round-trips arriving over the push websocket.
+ */
+@RequiredArgsConstructor
+public class SqlBudgetFilter extends OncePerRequestFilter {
+    private final SqlMonitor monitor;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith(request.getContextPath() + "/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        SqlScope scope = SqlScope.open(request.getMethod() + " " + request.getRequestURI());
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            scope.close();
+            monitor.report(scope);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package io.sherdor.todoapp.monitoring;
+
+import lombok.extern.slf4j.Slf4j;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.MethodExecutionContext;
+import net.ttddyy.dsproxy.listener.MethodExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.listener.logging.DefaultQueryLogEntryCreator;
+
+import java.sql.ResultSet;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Listener on the proxied data source. Feeds every statement and every row read into the open {@link SqlScope}s,
+ * logs statements slower than the threshold with their bound parameters, and reports scopes that go over the
+ * statement budget.
+ */
+@Slf4j
+public class SqlMonitor implements QueryExecutionListener, MethodExecutionListener {
+    private final long slowQueryMillis;
+    private final int statementBudget;
+    private final DefaultQueryLogEntryCreator logEntries = new DefaultQueryLogEntryCreator();
+
+    public SqlMonitor(Duration slowQueryThreshold, int statementBudget) {
+        this.slowQueryMillis = slowQueryThreshold.toMillis();
+        this.statementBudget = statementBudget;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        SqlScope.recordStatement(execInfo.getElapsedTime(), affectedRows(execInfo.getResult()));
+        if (execInfo.getElapsedTime() >= slowQueryMillis) {
+            log.warn("Slow SQL: {}", logEntries.getLogEntry(execInfo, queryInfoList, false, false, false));
+        }
+    }
+
+    @Override
+    public void beforeMethod(MethodExecutionContext executionContext) {
+    }
+
+    @Override
+    public void afterMethod(MethodExecutionContext executionContext) {
+        if (executionContext.getTarget() instanceof ResultSet
+                && Boolean.TRUE.equals(executionContext.getResult())
+                && "next".equals(executionContext.getMethod().getName())) {
+            SqlScope.recordRow();
+        }
+    }
+
+    public void report(SqlScope scope) {
+        if (scope.getStatements() > statementBudget) {
+            log.warn("{} issued {} SQL statements (budget {}), {} rows, {} ms in SQL, {} ms total - likely N+1",
+                    scope.getName(), scope.getStatements(), statementBudget, scope.getRows(),
+                    scope.getSqlMillis(), scope.getElapsedMillis());
+        } else if (log.isDebugEnabled()) {
+            log.debug("{} issued {} SQL statements, {} rows, {} ms in SQL, {} ms total",
+                    scope.getName(), scope.getStatements(), scope.getRows(),
+                    scope.getSqlMillis(), scope.getElapsedMillis());
+        }
+    }
+
+    // Update counts; a query's result set is counted row by row in afterMethod instead
+    private static long affectedRows(Object result) {
+        return switch (result) {
+            case Integer count -> Math.max(count, 0);
+            case Long count -> Math.max(count, 0);
+            case int[] counts -> {
+                long sum = 0;
+                for (int count : counts) {
+                    sum += Math.max(count, 0);
+                }
+                yield sum;
+            }
+            case long[] counts -> {
+                long sum = 0;
+                for (long count : counts) {
+                    sum += Math.max(count, 0);
+                }
+                yield sum;
+            }
+            case null, default -> 0;
+        };
+    }
+}
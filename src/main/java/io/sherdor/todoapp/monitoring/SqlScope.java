@@ -0,0 +1,84 @@
+package io.sherdor.todoapp.monitoring;
+
+/**
+ * SQL issued on the current thread between {@link #open} and {@link #close}. Scopes nest and a statement counts
+ * towards every open scope, so a test can wrap a request that {@link SqlBudgetFilter} is already measuring:
+ * <pre>{@code
+ * try (SqlScope scope = SqlScope.open("stats")) {
+ *     mockMvc.perform(get("/api/todos/stats"));
+ *     assertThat(scope.getStatements()).isLessThanOrEqualTo(1);
+ * }
+ * }</pre>
+ * Counts only come in while the data source is wrapped by {@link SqlMonitor}.
+ */
+public final class SqlScope implements AutoCloseable {
+    private static final ThreadLocal<SqlScope> CURRENT = new ThreadLocal<>();
+
+    private final String name;
+    private final SqlScope parent;
+    private final long startNanos = System.nanoTime();
+    private int statements;
+    private long rows;
+    private long sqlMillis;
+    private long elapsedNanos = -1;
+
+    private SqlScope(String name, SqlScope parent) {
+        this.name = name;
+        this.parent = parent;
+    }
+
+    public static SqlScope open(String name) {
+        SqlScope scope = new SqlScope(name, CURRENT.get());
+        CURRENT.set(scope);
+        return scope;
+    }
+
+    static void recordStatement(long millis, long affectedRows) {
+        for (SqlScope scope = CURRENT.get(); scope != null; scope = scope.parent) {
+            scope.statements++;
+            scope.rows += affectedRows;
+            scope.sqlMillis += millis;
+        }
+    }
+
+    static void recordRow() {
+        for (SqlScope scope = CURRENT.get(); scope != null; scope = scope.parent) {
+            scope.rows++;
+        }
+    }
+
+    @Override
+    public void close() {
+        if (elapsedNanos >= 0) {
+            return;
+        }
+        elapsedNanos = System.nanoTime() - startNanos;
+        if (parent == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(parent);
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getStatements() {
+        return statements;
+    }
+
+    // Rows read through result sets plus rows reported by updates
+    public long getRows() {
+        return rows;
+    }
+
+    // Time spent executing statements, as measured by the proxy in milliseconds
+    public long getSqlMillis() {
+        return sqlMillis;
+    }
+
+    public long getElapsedMillis() {
+        return (elapsedNanos >= 0 ? elapsedNanos : System.nanoTime() - startNanos) / 1_000_000;
+    }
+}
@@ -0,0 +1,47 @@
+package io.sherdor.todoapp.monitoring;
+
+import com.vaadin.flow.server.ServiceInitEvent;
+import com.vaadin.flow.server.VaadinRequest;
+import com.vaadin.flow.server.VaadinRequestInterceptor;
+import com.vaadin.flow.server.VaadinResponse;
+import com.vaadin.flow.server.VaadinServiceInitListener;
+import com.vaadin.flow.server.VaadinSession;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Measures the SQL issued by each Vaadin round-trip, whether it arrives as an HTTP request or over the push
+ * websocket. Work the view hands to background threads is not attributed to the round-trip that started it.
+ */
+@RequiredArgsConstructor
+public class VaadinSqlBudget implements VaadinServiceInitListener {
+    private static final String SCOPE_ATTRIBUTE = SqlScope.class.getName();
+
+    private final SqlMonitor monitor;
+
+    @Override
+    public void serviceInit(ServiceInitEvent event) {
+        event.addVaadinRequestInterceptor(new Interceptor());
+    }
+
+    private class Interceptor implements VaadinRequestInterceptor {
+        @Override
+        public void requestStart(VaadinRequest request, VaadinResponse response) {
+            String type = request.getParameter("v-r");
+            request.setAttribute(SCOPE_ATTRIBUTE,
+                    SqlScope.open("Vaadin " + (type != null ? type : "request") + " " + request.getPathInfo()));
+        }
+
+        @Override
+        public void handleException(VaadinRequest request, VaadinResponse response, VaadinSession session,
+                                    Exception exception) {
+        }
+
+        @Override
+        public void requestEnd(VaadinRequest request, VaadinResponse response, VaadinSession session) {
+            if (request.getAttribute(SCOPE_ATTRIBUTE) instanceof SqlScope scope) {
+                scope.close();
+                monitor.report(scope);
+            }
+        }
+    }
+}
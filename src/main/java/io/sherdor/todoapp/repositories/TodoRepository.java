@@ -1,32 +1,153 @@
 package io.sherdor.todoapp.repositories;
 
+import io.sherdor.todoapp.dto.TodoDto;
 import io.sherdor.todoapp.entity.Todo;
+import io.sherdor.todoapp.enums.Priority;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface TodoRepository extends JpaRepository<Todo, Long> {
-    List<Todo> findByCompletedFalseOrderByPriorityDescCompletedDesc();
+    // Read paths select straight into TodoDto: no managed entities, no dirty-checking snapshots, no mapping pass.
+    // Derived finders returning TodoDto get the same constructor expression from Spring Data.
+    String SELECT_DTO = "select new io.sherdor.todoapp.dto.TodoDto(t.id, t.title, t.description, t.completed, " +
+                        "t.priority, t.createdAt, t.updatedAt, t.dueDate, t.version) from Todo t ";
 
-    List<Todo> findByCompletedTrueOrderByUpdatedAtDesc();
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<TodoDto> findByCompletedFalseOrderByPriorityDescCompletedDesc();
 
-    @Query("SELECT t FROM Todo t WHERE " +
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<TodoDto> findByCompletedTrueOrderByUpdatedAtDesc();
+
+    // Walks the primary key, so the unpaged list comes back in the same order as the id cursor pages
+    List<TodoDto> findAllByOrderByIdAsc();
+
+    Slice<TodoDto> findAllBy(Pageable pageable);
+
+    Slice<TodoDto> findByCompleted(boolean completed, Pageable pageable);
+
+    List<TodoDto> findByIdIn(Collection<Long> ids);
+
+    Slice<TodoDto> findByIdIn(Collection<Long> ids, Pageable pageable);
+
+    @Query("SELECT t.id FROM Todo t WHERE t.id > :afterId AND (" +
            "LOWER(t.title) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
-           "LOWER(t.description) LIKE LOWER(CONCAT('%', :searchTerm, '%'))")
-    List<Todo> findByTitleOrDescriptionContainingIgnoreCase(@Param("searchTerm") String searchTerm);
+           "LOWER(t.description) LIKE LOWER(CONCAT('%', :searchTerm, '%'))) " +
+           "ORDER BY t.id")
+    List<Long> searchIds(@Param("searchTerm") String searchTerm, @Param("afterId") long afterId, Limit limit);
+
+    @Query(SELECT_DTO + "where t.dueDate < :now and t.completed=false")
+    List<TodoDto> findByOverdueTodos(@Param("now") LocalDateTime now);
+
+    @Query(SELECT_DTO + "where t.dueDate < :now and t.completed=false")
+    Slice<TodoDto> findByOverdueTodos(@Param("now") LocalDateTime now, Pageable pageable);
+
+    // Half-open range [from, to) rather than DATE(due_date), so the due_date index can be used
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query(SELECT_DTO + "where t.completed=false and t.dueDate >= :from and t.dueDate < :to " +
+           "order by t.dueDate asc, t.id asc")
+    List<TodoDto> findTodoForDate(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    // Keyset (seek) pagination: each page continues strictly after the last row of the previous one
+
+    List<TodoDto> findByIdGreaterThanOrderByIdAsc(Long afterId, Limit limit);
+
+    List<TodoDto> findByCompletedFalseOrderByPriorityDescIdAsc(Limit limit);
+
+    @Query(SELECT_DTO + "where t.completed=false and " +
+           "(t.priority < :priority or (t.priority = :priority and t.id > :afterId)) " +
+           "order by t.priority desc, t.id asc")
+    List<TodoDto> findActiveAfter(@Param("priority") Priority priority, @Param("afterId") Long afterId, Limit limit);
+
+    List<TodoDto> findByCompletedTrueAndUpdatedAtNotNullOrderByUpdatedAtDescIdDesc(Limit limit);
+
+    @Query(SELECT_DTO + "where t.completed=true and " +
+           "(t.updatedAt < :updatedAt or (t.updatedAt = :updatedAt and t.id < :beforeId)) " +
+           "order by t.updatedAt desc, t.id desc")
+    List<TodoDto> findCompletedAfter(@Param("updatedAt") LocalDateTime updatedAt, @Param("beforeId") Long beforeId, Limit limit);
 
-    @Query("select t from Todo t where t.dueDate < :now and t.completed=false")
-    List<Todo> findByOverdueTodos(@Param("now") LocalDateTime now);
+    List<TodoDto> findByCompletedTrueAndUpdatedAtNullAndIdLessThanOrderByIdDesc(Long beforeId, Limit limit);
 
-    @Query("select t from Todo t where DATE(t.dueDate) = DATE(:date) and t.completed=false")
-    List<Todo> findTodoForDate(@Param("date") LocalDateTime date);
+    List<TodoDto> findByCompletedFalseAndDueDateBeforeOrderByDueDateAscIdAsc(LocalDateTime now, Limit limit);
+
+    @Query(SELECT_DTO + "where t.completed=false and t.dueDate < :now and " +
+           "(t.dueDate > :dueDate or (t.dueDate = :dueDate and t.id > :afterId)) " +
+           "order by t.dueDate asc, t.id asc")
+    List<TodoDto> findOverdueAfter(@Param("now") LocalDateTime now, @Param("dueDate") LocalDateTime dueDate,
+                                @Param("afterId") Long afterId, Limit limit);
+
+    @Query(SELECT_DTO + "where t.completed=false and t.dueDate >= :from and t.dueDate < :to and " +
+           "(t.dueDate > :dueDate or (t.dueDate = :dueDate and t.id > :afterId)) " +
+           "order by t.dueDate asc, t.id asc")
+    List<TodoDto> findDueBetweenAfter(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to,
+                                   @Param("dueDate") LocalDateTime dueDate, @Param("afterId") Long afterId,
+                                   Limit limit);
+
+    @Query("select t.priority as priority, count(t) as total, " +
+           "sum(case when t.completed=true then 1 else 0 end) as completed, " +
+           "sum(case when t.completed=false and t.dueDate < :now then 1 else 0 end) as overdue " +
+           "from Todo t group by t.priority")
+    List<PriorityCounts> countByPriority(@Param("now") LocalDateTime now);
+
+    @Query("select t.id as id, t.dueDate as dueDate, t.priority as priority from Todo t " +
+           "where t.completed=false and t.dueDate >= :now")
+    List<DeadlineView> findUpcomingDeadlines(@Param("now") LocalDateTime now);
+
+    // Holds the rows until the transaction ends; taken in id order, so overlapping batches cannot deadlock
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select t from Todo t where t.id in :ids order by t.id")
+    List<Todo> lockByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Todo t set t.completed = :completed, t.updatedAt = :updatedAt, t.version = t.version + 1 " +
+           "where t.id in :ids")
+    int bulkUpdateCompleted(@Param("ids") Collection<Long> ids, @Param("completed") boolean completed,
+                            @Param("updatedAt") LocalDateTime updatedAt);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from Todo t where t.id in :ids")
+    int bulkDelete(@Param("ids") Collection<Long> ids);
+
+    // Forward-only cursor for exports: rows arrive in fetch-size chunks and nothing is kept in the persistence context
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(SELECT_DTO + "order by t.id")
+    Stream<TodoDto> streamAll();
 
     long countByCompletedTrue();
 
     long countByCompletedFalse();
+
+    interface PriorityCounts {
+        Priority getPriority();
+
+        long getTotal();
+
+        long getCompleted();
+
+        long getOverdue();
+    }
+
+    interface DeadlineView {
+        Long getId();
+
+        LocalDateTime getDueDate();
+
+        Priority getPriority();
+    }
 }
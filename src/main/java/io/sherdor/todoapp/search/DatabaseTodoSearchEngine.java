@@ -0,0 +1,27 @@
+package io.sherdor.todoapp.search;
+
+import io.sherdor.todoapp.repositories.TodoRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Substring search with {@code LIKE '%term%'} in the database. No ranking: matches come back in id order.
+ */
+@Component
+@ConditionalOnProperty(name = "todo.search.engine", havingValue = "database")
+@RequiredArgsConstructor
+public class DatabaseTodoSearchEngine implements TodoSearchEngine {
+    private final TodoRepository repository;
+
+    // Every match scores the same, so the keyset is the id alone
+    @Override
+    public List<Hit> searchAfter(String term, Hit after, int limit) {
+        return repository.searchIds(term, after == null ? 0L : after.id(), Limit.of(limit)).stream()
+                .map(id -> new Hit(id, 0))
+                .toList();
+    }
+}
@@ -0,0 +1,287 @@
+package io.sherdor.todoapp.search;
+
+import io.sherdor.todoapp.dto.TodoDto;
+import io.sherdor.todoapp.events.TodoChangedEvent;
+import io.sherdor.todoapp.events.TodosChangedEvent;
+import io.sherdor.todoapp.store.TodoStore;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-process inverted index over the words of todo titles and descriptions.
+ * <p>
+ * Text is case-folded and split into words. Each word maps to the todos containing it, and an index of every
+ * one-, two- and three-character substring of the vocabulary finds the words containing a query fragment, so
+ * infix matches ("port" finds "report", "ep" finds "report") never scan the todos or the vocabulary. A query
+ * matches a todo when each of its words occurs inside some word of the title or description. Exact words rank
+ * above prefixes, prefixes above infixes, and title hits above description hits. The index is built on startup
+ * and kept in sync from committed {@link TodoChangedEvent}s and {@link TodosChangedEvent}s.
+ * <p>
+ * After-commit listeners for the same todo can run concurrently on different request threads, in either order.
+ * Changes to one todo are therefore applied under its entry in {@code indexed}, and an event older than the
+ * indexed version is ignored. A deleted todo keeps a word-less entry, so a late update cannot bring it back.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "todo.search.engine", havingValue = "memory", matchIfMissing = true)
+@RequiredArgsConstructor
+public class InMemoryTodoSearchEngine implements TodoSearchEngine {
+    private static final int GRAM = 3;
+    private static final int IN_TITLE = 1;
+    private static final int IN_DESCRIPTION = 2;
+    private static final int BUILD_BATCH_SIZE = 1000;
+
+    private final TodoStore store;
+
+    // word -> (todo id -> IN_TITLE / IN_DESCRIPTION bits)
+    private final Map<String, Map<Long, Integer>> postings = new ConcurrentHashMap<>();
+    // 1-, 2- or 3-character gram of a word -> words containing it
+    private final Map<Long, Set<String>> wordsByGram = new ConcurrentHashMap<>();
+    // todo id -> the version indexed and its words, needed to unindex it
+    private final Map<Long, Indexed> indexed = new ConcurrentHashMap<>();
+
+    private record Indexed(long version, Map<String, Integer> words) {
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        postings.clear();
+        wordsByGram.clear();
+        indexed.clear();
+        long afterId = 0;
+        List<TodoDto> batch;
+        do {
+            batch = store.findAllAfter(afterId, BUILD_BATCH_SIZE);
+            for (TodoDto todo : batch) {
+                apply(todo.getId(), todo.getVersion(), todo);
+                afterId = todo.getId();
+            }
+        } while (batch.size() == BUILD_BATCH_SIZE);
+        log.info("Search index built: {} todos, {} words", indexed.size(), postings.size());
+    }
+
+    // Ahead of the UI broadcast, so pushed views read state that already includes the change
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTodoChanged(TodoChangedEvent event) {
+        TodoDto after = event.getAfter();
+        apply(event.getTodoId(), after != null ? after.getVersion() : event.getBefore().getVersion(), after);
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTodosChanged(TodosChangedEvent event) {
+        event.getChanges().forEach(this::onTodoChanged);
+    }
+
+    @Override
+    public List<Hit> searchAfter(String term, Hit after, int limit) {
+        List<String> queryWords = words(term);
+        if (queryWords.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        Map<Long, Integer> scores = null;
+        for (String queryWord : queryWords) {
+            Map<Long, Integer> wordScores = score(queryWord);
+            if (scores == null) {
+                scores = wordScores;
+            } else {
+                // Every query word has to match: keep the intersection and add up the scores
+                Map<Long, Integer> previous = scores;
+                wordScores.keySet().retainAll(previous.keySet());
+                wordScores.replaceAll((id, score) -> score + previous.get(id));
+                scores = wordScores;
+            }
+            if (scores.isEmpty()) {
+                return List.of();
+            }
+        }
+
+        // Worst first, so the queue head is the hit to drop once it holds more than limit
+        Comparator<Hit> ranking = Comparator.comparingInt(Hit::score)
+                .thenComparing(Comparator.comparingLong(Hit::id).reversed());
+        PriorityQueue<Hit> top = new PriorityQueue<>(Math.min(limit, scores.size()) + 1, ranking);
+        for (Map.Entry<Long, Integer> entry : scores.entrySet()) {
+            Hit hit = new Hit(entry.getKey(), entry.getValue());
+            // Keyset paging: only hits ranked below the previous page's last one
+            if (after != null && ranking.compare(hit, after) >= 0) {
+                continue;
+            }
+            top.offer(hit);
+            if (top.size() > limit) {
+                top.poll();
+            }
+        }
+        List<Hit> hits = new ArrayList<>(top.size());
+        while (!top.isEmpty()) {
+            hits.add(top.poll());
+        }
+        return hits.reversed();
+    }
+
+    // Best score per todo over all indexed words containing queryWord
+    private Map<Long, Integer> score(String queryWord) {
+        Map<Long, Integer> scores = new HashMap<>();
+        for (String word : wordsContaining(queryWord)) {
+            int matchWeight = word.equals(queryWord) ? 3 : word.startsWith(queryWord) ? 2 : 1;
+            Map<Long, Integer> todos = postings.get(word);
+            if (todos == null) {
+                continue;
+            }
+            todos.forEach((id, fields) -> {
+                int score = matchWeight * ((fields & IN_TITLE) != 0 ? 2 : 1);
+                scores.merge(id, score, Math::max);
+            });
+        }
+        return scores;
+    }
+
+    private Set<String> wordsContaining(String fragment) {
+        Set<String> candidates = null;
+        for (long gram : queryGrams(fragment)) {
+            Set<String> words = wordsByGram.get(gram);
+            if (words == null) {
+                return Set.of();
+            }
+            if (candidates == null || words.size() < candidates.size()) {
+                candidates = words;
+            }
+        }
+        Set<String> matches = new HashSet<>();
+        for (String word : candidates) {
+            if (word.contains(fragment)) {
+                matches.add(word);
+            }
+        }
+        return matches;
+    }
+
+    // Replaces the indexed state of a todo with its state at version; todo is null once it is deleted.
+    // A deletion carries the version it deleted, so it wins over an update to that same version.
+    private void apply(Long id, long version, TodoDto todo) {
+        indexed.compute(id, (key, current) -> {
+            if (current != null && (todo == null ? version < current.version() : version <= current.version())) {
+                return current;
+            }
+            if (current != null) {
+                unindex(id, current.words());
+            }
+            Map<String, Integer> todoWords = todo == null ? Map.of() : words(todo);
+            index(id, todoWords);
+            return new Indexed(version, todoWords);
+        });
+    }
+
+    private static Map<String, Integer> words(TodoDto todo) {
+        Map<String, Integer> todoWords = new HashMap<>();
+        for (String word : words(todo.getTitle())) {
+            todoWords.merge(word, IN_TITLE, (a, b) -> a | b);
+        }
+        for (String word : words(todo.getDescription())) {
+            todoWords.merge(word, IN_DESCRIPTION, (a, b) -> a | b);
+        }
+        return todoWords;
+    }
+
+    // The gram sets are only changed inside the compute of their word's postings, so a word is never added to a
+    // set that a concurrent removal is about to drop
+    private void index(Long id, Map<String, Integer> todoWords) {
+        todoWords.forEach((word, fields) -> postings.compute(word, (w, todos) -> {
+            if (todos == null) {
+                todos = new ConcurrentHashMap<>();
+                for (long gram : indexGrams(w)) {
+                    wordsByGram.compute(gram, (g, words) -> {
+                        Set<String> set = words != null ? words : ConcurrentHashMap.newKeySet();
+                        set.add(w);
+                        return set;
+                    });
+                }
+            }
+            todos.put(id, fields);
+            return todos;
+        }));
+    }
+
+    private void unindex(Long id, Map<String, Integer> todoWords) {
+        for (String word : todoWords.keySet()) {
+            postings.computeIfPresent(word, (w, todos) -> {
+                todos.remove(id);
+                if (!todos.isEmpty()) {
+                    return todos;
+                }
+                for (long gram : indexGrams(w)) {
+                    wordsByGram.computeIfPresent(gram, (g, words) -> {
+                        words.remove(w);
+                        return words.isEmpty() ? null : words;
+                    });
+                }
+                return null;
+            });
+        }
+    }
+
+    private static List<String> words(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        List<String> words = new ArrayList<>();
+        for (String word : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (!word.isEmpty()) {
+                words.add(word);
+            }
+        }
+        return words;
+    }
+
+    // Every distinct substring of up to GRAM chars
+    private static Set<Long> indexGrams(String word) {
+        Set<Long> grams = new HashSet<>();
+        for (int length = 1; length <= GRAM; length++) {
+            for (int i = 0; i + length <= word.length(); i++) {
+                grams.add(gram(word, i, length));
+            }
+        }
+        return grams;
+    }
+
+    // A fragment shorter than GRAM is a gram itself; a longer one is looked up by its trigrams
+    private static long[] queryGrams(String fragment) {
+        if (fragment.length() < GRAM) {
+            return new long[]{gram(fragment, 0, fragment.length())};
+        }
+        long[] grams = new long[fragment.length() - GRAM + 1];
+        for (int i = 0; i < grams.length; i++) {
+            grams[i] = gram(fragment, i, GRAM);
+        }
+        return grams;
+    }
+
+    // Up to three UTF-16 chars packed into one long, with the length above them so grams of different lengths
+    // never collide
+    private static long gram(String text, int from, int length) {
+        long gram = (long) length << 48;
+        for (int i = 0; i < length; i++) {
+            gram |= (long) text.charAt(from + i) << (16 * (length - 1 - i));
+        }
+        return gram;
+    }
+}
@@ -0,0 +1,30 @@
+package io.sherdor.todoapp.search;
+
+import java.util.List;
+
+public interface TodoSearchEngine {
+
+    /**
+     * A matching todo and its relevance; results are ordered by descending score, then ascending id.
+     */
+    record Hit(long id, int score) {
+    }
+
+    /**
+     * Finds todos whose title or description matches {@code term}, case-insensitively.
+     *
+     * @return ids of the matching todos, best match first, at most {@code limit} of them
+     */
+    default List<Long> search(String term, int limit) {
+        return searchAfter(term, null, limit).stream().map(Hit::id).toList();
+    }
+
+    /**
+     * Like {@link #search}, but only the matches ranked below {@code after}, so results can be paged by keyset
+     * instead of by offset.
+     *
+     * @param after the last hit of the previous page, or null for the first page
+     * @return the next matches, best first, at most {@code limit} of them
+     */
+    List<Hit> searchAfter(String term, Hit after, int limit);
+}
@@ -0,0 +1,64 @@
+package io.sherdor.todoapp.service;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Reads lines terminated by LF, CR or CRLF, holding at most {@code maxLength} characters of each: the rest of a
+ * longer line is read past without being kept, and the line is flagged as {@link #isTooLong() too long}.
+ */
+final class BoundedLineReader {
+    private final Reader reader;
+    private final int maxLength;
+    private final StringBuilder line = new StringBuilder();
+    private int pushedBack = -1;
+    private boolean tooLong;
+
+    BoundedLineReader(Reader reader, int maxLength) {
+        this.reader = reader;
+        this.maxLength = maxLength;
+    }
+
+    /**
+     * @return the next line without its terminator, cut at the maximum length, or null at the end of input
+     */
+    String readLine() throws IOException {
+        line.setLength(0);
+        tooLong = false;
+        int c = read();
+        if (c < 0) {
+            return null;
+        }
+        while (c >= 0 && c != '\n' && c != '\r') {
+            if (line.length() < maxLength) {
+                line.append((char) c);
+            } else {
+                tooLong = true;
+            }
+            c = read();
+        }
+        if (c == '\r') {
+            int following = read();
+            if (following != '\n') {
+                pushedBack = following;
+            }
+        }
+        return line.toString();
+    }
+
+    /**
+     * @return whether the line last returned by {@link #readLine()} was longer than the maximum length
+     */
+    boolean isTooLong() {
+        return tooLong;
+    }
+
+    private int read() throws IOException {
+        if (pushedBack != -1) {
+            int c = pushedBack;
+            pushedBack = -1;
+            return c;
+        }
+        return reader.read();
+    }
+}
@@ -0,0 +1,18 @@
+package io.sherdor.todoapp.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * A page cursor that this service did not hand out. Answered with 400; the cursor itself is not echoed back.
+ */
+public class InvalidCursorException extends ResponseStatusException {
+
+    InvalidCursorException() {
+        this(null);
+    }
+
+    InvalidCursorException(Throwable cause) {
+        super(HttpStatus.BAD_REQUEST, "Invalid cursor", cause);
+    }
+}
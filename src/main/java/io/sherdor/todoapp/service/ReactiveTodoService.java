@@ -0,0 +1,81 @@
+package io.sherdor.todoapp.service;
+
+import io.sherdor.todoapp.config.TodoStats;
+import io.sherdor.todoapp.dto.CursorPage;
+import io.sherdor.todoapp.dto.TodoDto;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.util.concurrent.Callable;
+import java.util.function.BiFunction;
+
+/**
+ * Non-blocking view of the {@link TodoService} reads. Lists are streamed as a chain of keyset pages of
+ * {@code todo.reactive.page-size} rows, each read on {@code todoReadScheduler}; a page is only fetched once
+ * the subscriber has asked for the rows of the previous one, so a slow client holds at most one page in memory
+ * and never a connection.
+ */
+@Service
+public class ReactiveTodoService {
+    private final TodoService service;
+    private final Scheduler scheduler;
+    private final int pageSize;
+
+    public ReactiveTodoService(TodoService service,
+                               @Qualifier("todoReadScheduler") Scheduler scheduler,
+                               @Value("${todo.reactive.page-size:200}") int pageSize) {
+        this.service = service;
+        this.scheduler = scheduler;
+        this.pageSize = pageSize;
+    }
+
+    public Flux<TodoDto> getAllTodos() {
+        return pages(service::getAllTodos);
+    }
+
+    public Flux<TodoDto> getActiveTodos() {
+        return pages(service::getActiveTodos);
+    }
+
+    public Flux<TodoDto> getCompletedTodos() {
+        return pages(service::getCompletedTodos);
+    }
+
+    public Flux<TodoDto> getOverdueTodos() {
+        return pages(service::getOverdueTodos);
+    }
+
+    public Flux<TodoDto> getTodayTodos() {
+        return pages(service::getTodayTodos);
+    }
+
+    public Flux<TodoDto> searchTodos(String searchItem) {
+        return pages((limit, cursor) -> service.searchTodos(searchItem, limit, cursor));
+    }
+
+    public Mono<TodoDto> getById(Long id) {
+        return read(() -> service.getById(id));
+    }
+
+    // Served from in-memory counters, so there is nothing to offload
+    public Mono<TodoStats> getStats() {
+        return Mono.fromSupplier(service::getStats);
+    }
+
+    private Flux<TodoDto> pages(BiFunction<Integer, String, CursorPage<TodoDto>> fetch) {
+        return read(() -> fetch.apply(pageSize, null))
+                .expand(page -> page.getNextCursor() == null
+                        ? Mono.empty()
+                        : read(() -> fetch.apply(pageSize, page.getNextCursor())))
+                // Prefetch of one page: the next query waits for demand instead of running ahead
+                .concatMapIterable(CursorPage::getItems, 1);
+    }
+
+    private <T> Mono<T> read(Callable<T> query) {
+        return Mono.fromCallable(query).subscribeOn(scheduler);
+    }
+}
@@ -0,0 +1,70 @@
+package io.sherdor.todoapp.service;
+
+import io.sherdor.todoapp.config.CacheConfig;
+import io.sherdor.todoapp.events.TodoChangedEvent;
+import io.sherdor.todoapp.events.TodosChangedEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Evicts cached {@code TodoService} results once a write has committed.
+ * <p>
+ * Eviction alone cannot stop a reader that queried before the commit from caching its result afterwards.
+ * List caches are therefore keyed by {@link TodoVersions#getChanges()}, so such a result lands under a count
+ * no later reader asks for, and clearing them here only frees the memory. The by-id cache is keyed by id;
+ * {@code TodoService.getById} compares {@link #getEvictions()} around its load and takes back a put that an
+ * eviction may have missed.
+ */
+@Component
+@RequiredArgsConstructor
+public class TodoCacheInvalidator {
+    private final CacheManager cacheManager;
+    // Bumped before evicting, so a reader that sees it unchanged after its put knows the eviction is still to come
+    private final AtomicLong evictions = new AtomicLong();
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTodoChanged(TodoChangedEvent event) {
+        evictions.incrementAndGet();
+        evict(CacheConfig.TODO_BY_ID, event.getTodoId());
+        clear(CacheConfig.ACTIVE_TODOS);
+        clear(CacheConfig.COMPLETED_TODOS);
+        clear(CacheConfig.TODAY_TODOS);
+    }
+
+    // A batch can touch thousands of ids; dropping the whole by-id cache is one call instead of an eviction each
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTodosChanged(TodosChangedEvent event) {
+        evictions.incrementAndGet();
+        clear(CacheConfig.TODO_BY_ID);
+        clear(CacheConfig.ACTIVE_TODOS);
+        clear(CacheConfig.COMPLETED_TODOS);
+        clear(CacheConfig.TODAY_TODOS);
+    }
+
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    private void evict(String name, Object key) {
+        Cache cache = cacheManager.getCache(name);
+        if (cache != null) {
+            cache.evict(key);
+        }
+    }
+
+    private void clear(String name) {
+        Cache cache = cacheManager.getCache(name);
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+}
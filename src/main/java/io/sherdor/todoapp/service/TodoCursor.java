@@ -0,0 +1,73 @@
+package io.sherdor.todoapp.service;
+
+import io.sherdor.todoapp.enums.Priority;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Opaque keyset position: the sort key of the last row on a page plus its id.
+ * Encoded as URL-safe base64 of {@code "<sortKey>|<id>"}; an empty sort key stands for null. A cursor that does
+ * not decode, or whose sort key does not fit the list it is used on, throws {@link InvalidCursorException}.
+ */
+record TodoCursor(String sortKey, long id) {
+
+    static String encode(Object sortKey, long id) {
+        String raw = (sortKey == null ? "" : sortKey.toString()) + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static TodoCursor decode(String cursor) {
+        String raw;
+        try {
+            raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException(e);
+        }
+        int separator = raw.lastIndexOf('|');
+        if (separator < 0) {
+            throw new InvalidCursorException();
+        }
+        String sortKey = raw.substring(0, separator);
+        try {
+            return new TodoCursor(sortKey.isEmpty() ? null : sortKey, Long.parseLong(raw.substring(separator + 1)));
+        } catch (NumberFormatException e) {
+            throw new InvalidCursorException(e);
+        }
+    }
+
+    Priority priority() {
+        if (sortKey == null) {
+            throw new InvalidCursorException();
+        }
+        try {
+            return Priority.valueOf(sortKey);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException(e);
+        }
+    }
+
+    int score() {
+        if (sortKey == null) {
+            throw new InvalidCursorException();
+        }
+        try {
+            return Integer.parseInt(sortKey);
+        } catch (NumberFormatException e) {
+            throw new InvalidCursorException(e);
+        }
+    }
+
+    LocalDateTime dateTime() {
+        if (sortKey == null) {
+            throw new InvalidCursorException();
+        }
+        try {
+            return LocalDateTime.parse(sortKey);
+        } catch (DateTimeParseException e) {
+            throw new InvalidCursorException(e);
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package io.sherdor.todoapp.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.sherdor.todoapp.dto.TodoDto;
+import io.sherdor.todoapp.enums.DataFormat;
+import io.sherdor.todoapp.store.TodoStore;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.stream.Stream;
+
+/**
+ * Streams every todo to an output stream in constant memory: rows come from a forward-only cursor as
+ * unmanaged {@link TodoDto}s (or straight from the in-memory store) and are written one at a time.
+ */
+@Service
+@RequiredArgsConstructor
+public class TodoExporter {
+    private static final int CHUNK_SIZE = 500;
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+
+    private final TodoStore store;
+    private final ObjectMapper objectMapper;
+
+    @Transactional(readOnly = true)
+    public long export(DataFormat format, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        RowWriter rows = format == DataFormat.CSV ? new CsvRowWriter(writer) : new NdjsonRowWriter(writer);
+        long count = 0;
+        try (Stream<TodoDto> todos = store.streamAll()) {
+            for (TodoDto todo : (Iterable<TodoDto>) todos::iterator) {
+                rows.write(todo);
+                if (++count % CHUNK_SIZE == 0) {
+                    rows.flush();
+                    writer.flush();
+                }
+            }
+        }
+        rows.flush();
+        writer.flush();
+        return count;
+    }
+
+    private interface RowWriter {
+        void write(TodoDto todo) throws IOException;
+
+        // Pushes anything buffered ahead of the writer into it
+        default void flush() throws IOException {
+        }
+    }
+
+    private final class NdjsonRowWriter implements RowWriter {
+        private final TodoNdjsonWriter json;
+
+        NdjsonRowWriter(Writer writer) throws IOException {
+            json = new TodoNdjsonWriter(objectMapper.getFactory(), writer);
+        }
+
+        @Override
+        public void write(TodoDto todo) throws IOException {
+            json.write(todo);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            json.flush();
+        }
+    }
+
+    private static final class CsvRowWriter implements RowWriter {
+        private final Writer writer;
+
+        CsvRowWriter(Writer writer) throws IOException {
+            this.writer = writer;
+            writer.write("id,title,description,completed,priority,createdAt,updatedAt,dueDate\n");
+        }
+
+        @Override
+        public void write(TodoDto todo) throws IOException {
+            writer.write(String.valueOf(todo.getId()));
+            writer.write(',');
+            writer.write(escape(todo.getTitle()));
+            writer.write(',');
+            writer.write(escape(todo.getDescription()));
+            writer.write(',');
+            writer.write(String.valueOf(todo.isCompleted()));
+            writer.write(',');
+            writer.write(todo.getPriority().name());
+            writer.write(',');
+            writer.write(format(todo.getCreatedAt()));
+            writer.write(',');
+            writer.write(format(todo.getUpdatedAt()));
+            writer.write(',');
+            writer.write(format(todo.getDueDate()));
+            writer.write('\n');
+        }
+
+        private static String format(LocalDateTime dateTime) {
+            return dateTime == null ? "" : DATE_FORMAT.format(dateTime);
+        }
+
+        private static String escape(String value) {
+            if (value == null) {
+                return "";
+            }
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+                return value;
+            }
+            return '"' + value.replace("\"", "\"\"") + '"';
+        }
+    }
+}
@@ -0,0 +1,267 @@
+package io.sherdor.todoapp.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.sherdor.todoapp.dto.CreateTodoDto;
+import io.sherdor.todoapp.dto.ImportReport;
+import io.sherdor.todoapp.enums.DataFormat;
+import io.sherdor.todoapp.enums.Priority;
+import jakarta.annotation.PostConstruct;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Imports todos from an NDJSON or CSV stream in bounded memory.
+ * <p>
+ * Rows are parsed one at a time, validated with the {@link CreateTodoDto} constraints and collected into
+ * fixed-size chunks; each chunk is committed in its own transaction through {@link TodoService#createTodos}.
+ * The input is only read further once the previous chunk is committed, so a slow database slows the
+ * upload down instead of piling rows up in memory. Invalid rows are skipped and reported. A line is held up to
+ * {@code todo.import.max-line-length} characters: a longer NDJSON line is skipped and reported. A CSV quote left
+ * open, or a CSV record over that length, leaves no reliable place to resume, so it ends the import: the rows
+ * before it are committed and the record is reported as rejected.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TodoImporter {
+    private static final int MAX_REPORTED_ERRORS = 100;
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+
+    private final TodoService todoService;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+
+    @Value("${todo.import.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${todo.batch.max-size:1000}")
+    private int maxBatchSize;
+
+    @Value("${todo.import.max-line-length:65536}")
+    private int maxLineLength;
+
+    // Every chunk goes through createTodos, which rejects batches over the bulk limit
+    @PostConstruct
+    void checkLimits() {
+        if (chunkSize < 1 || chunkSize > maxBatchSize) {
+            throw new IllegalStateException("todo.import.chunk-size must be between 1 and todo.batch.max-size ("
+                    + maxBatchSize + "), was " + chunkSize);
+        }
+        if (maxLineLength < 1) {
+            throw new IllegalStateException("todo.import.max-line-length must be positive, was " + maxLineLength);
+        }
+    }
+
+    public ImportReport importTodos(DataFormat format, InputStream in) throws IOException {
+        var reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        var progress = new Progress();
+        if (format == DataFormat.CSV) {
+            readCsv(reader, progress);
+        } else {
+            readNdjson(reader, progress);
+        }
+        progress.commitChunk();
+        ImportReport report = progress.report();
+        log.info("Imported {} of {} todos in {} ms ({} rows/s)", report.getRowsImported(), report.getRowsRead(),
+                report.getElapsedMillis(), Math.round(report.getRowsPerSecond()));
+        return report;
+    }
+
+    private void readNdjson(BufferedReader reader, Progress progress) throws IOException {
+        ObjectReader jsonReader = objectMapper.readerFor(CreateTodoDto.class);
+        var lines = new BoundedLineReader(reader, maxLineLength);
+        long lineNumber = 0;
+        String line;
+        while ((line = lines.readLine()) != null) {
+            lineNumber++;
+            if (lines.isTooLong()) {
+                progress.reject(lineNumber, "Line is longer than " + maxLineLength + " characters");
+                continue;
+            }
+            if (line.isBlank()) {
+                continue;
+            }
+            try {
+                JsonNode row = objectMapper.readTree(line);
+                JsonNode priority = row.get("priority");
+                // The export writes the priority by name, CreateTodoDto takes its ordinal
+                if (priority != null && priority.isTextual()) {
+                    ((ObjectNode) row).put("priority", parsePriority(priority.asText()));
+                }
+                progress.accept(lineNumber, jsonReader.readValue(row));
+            } catch (JsonProcessingException e) {
+                progress.reject(lineNumber, "Malformed JSON: " + e.getOriginalMessage());
+            } catch (IllegalArgumentException e) {
+                progress.reject(lineNumber, e.getMessage());
+            }
+        }
+    }
+
+    private void readCsv(BufferedReader reader, Progress progress) throws IOException {
+        var records = new CsvRecordReader(reader, maxLineLength);
+        List<String> header = records.next();
+        Map<String, Integer> columns = new HashMap<>();
+        if (header != null) {
+            for (int i = 0; i < header.size(); i++) {
+                columns.put(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+            }
+        }
+        if (!columns.containsKey("title") || !columns.containsKey("priority")) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "CSV header must name at least the title and priority columns");
+        }
+
+        List<String> record;
+        while ((record = nextRecord(records, progress)) != null) {
+            if (record.size() == 1 && record.get(0).isBlank()) {
+                continue;
+            }
+            long lineNumber = records.getRecordLine();
+            try {
+                progress.accept(lineNumber, new CreateTodoDto(
+                        column(record, columns, "title"),
+                        column(record, columns, "description"),
+                        parsePriority(column(record, columns, "priority")),
+                        parseDateTime(column(record, columns, "duedate"))));
+            } catch (IllegalArgumentException e) {
+                progress.reject(lineNumber, e.getMessage());
+            }
+        }
+    }
+
+    private static List<String> nextRecord(CsvRecordReader records, Progress progress) throws IOException {
+        try {
+            return records.next();
+        } catch (IllegalArgumentException e) {
+            progress.reject(records.getRecordLine(), e.getMessage());
+            return null;
+        }
+    }
+
+    private static String column(List<String> record, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        if (index == null || index >= record.size() || record.get(index).isEmpty()) {
+            return null;
+        }
+        return record.get(index);
+    }
+
+    // Accepts the ordinal used by CreateTodoDto as well as the enum name written by the export
+    private static Integer parsePriority(String value) {
+        if (value == null) {
+            return null;
+        }
+        String trimmed = value.trim();
+        try {
+            return Integer.valueOf(trimmed);
+        } catch (NumberFormatException e) {
+            try {
+                return Priority.valueOf(trimmed.toUpperCase(Locale.ROOT)).ordinal();
+            } catch (IllegalArgumentException ex) {
+                throw new IllegalArgumentException("Unknown priority: " + value, ex);
+            }
+        }
+    }
+
+    private static LocalDateTime parseDateTime(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return LocalDateTime.parse(value.trim(), DATE_FORMAT);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid due date, expected yyyy-MM-dd HH:mm: " + value, e);
+        }
+    }
+
+    private final class Progress {
+        private final long startNanos = System.nanoTime();
+        private final List<CreateTodoDto> chunk = new ArrayList<>(chunkSize);
+        private final List<ImportReport.RowError> errors = new ArrayList<>();
+        private long chunkFirstLine;
+        private long rowsRead;
+        private long rowsImported;
+        private long rowsRejected;
+        private long chunksCommitted;
+
+        void accept(long line, CreateTodoDto todo) {
+            rowsRead++;
+            Set<ConstraintViolation<CreateTodoDto>> violations = validator.validate(todo);
+            if (!violations.isEmpty()) {
+                rowsRejected++;
+                addError(line, violations.stream()
+                        .map(ConstraintViolation::getMessage)
+                        .sorted()
+                        .collect(Collectors.joining("; ")));
+                return;
+            }
+            if (chunk.isEmpty()) {
+                chunkFirstLine = line;
+            }
+            chunk.add(todo);
+            if (chunk.size() >= chunkSize) {
+                commitChunk();
+            }
+        }
+
+        void reject(long line, String message) {
+            rowsRead++;
+            rowsRejected++;
+            addError(line, message);
+        }
+
+        void commitChunk() {
+            if (chunk.isEmpty()) {
+                return;
+            }
+            try {
+                rowsImported += todoService.createTodos(chunk).size();
+                chunksCommitted++;
+            } catch (RuntimeException e) {
+                // The chunk's transaction rolled back as a whole
+                rowsRejected += chunk.size();
+                addError(chunkFirstLine, "Chunk of " + chunk.size() + " rows failed: " + e.getMessage());
+            }
+            chunk.clear();
+        }
+
+        private void addError(long line, String message) {
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new ImportReport.RowError(line, message));
+            }
+        }
+
+        ImportReport report() {
+            long elapsedNanos = Math.max(System.nanoTime() - startNanos, 1);
+            double rowsPerSecond = rowsImported * 1_000_000_000.0 / elapsedNanos;
+            return new ImportReport(rowsRead, rowsImported, rowsRejected, chunksCommitted,
+                    elapsedNanos / 1_000_000, rowsPerSecond, List.copyOf(errors));
+        }
+    }
+}
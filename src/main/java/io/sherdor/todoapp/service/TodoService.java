@@ -1,117 +1,348 @@
 package io.sherdor.todoapp.service;
 
+import io.micrometer.core.annotation.Timed;
+import io.sherdor.todoapp.config.CacheConfig;
 import io.sherdor.todoapp.config.TodoStats;
 import io.sherdor.todoapp.dto.CreateTodoDto;
+import io.sherdor.todoapp.dto.CursorPage;
 import io.sherdor.todoapp.dto.TodoDto;
 import io.sherdor.todoapp.dto.UpdateTodoDto;
+import io.sherdor.todoapp.enums.TodoChangeType;
+import io.sherdor.todoapp.events.TodoChangedEvent;
+import io.sherdor.todoapp.events.TodosChangedEvent;
 import io.sherdor.todoapp.mappers.TodoMapper;
-import io.sherdor.todoapp.repositories.TodoRepository;
+import io.sherdor.todoapp.search.TodoSearchEngine;
+import io.sherdor.todoapp.store.TodoStore;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.interceptor.SimpleKey;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 @Service
 @RequiredArgsConstructor
-@Transactional(readOnly = true)
+@Timed(value = "todo.service", description = "TodoService calls")
 public class TodoService {
-    private final TodoRepository repository;
+    private final TodoStore store;
     private final TodoMapper mapper;
+    private final TodoStatsTracker statsTracker;
+    private final ApplicationEventPublisher events;
+    private final TodoSearchEngine searchEngine;
+    private final TodoVersions versions;
+    private final TodoCacheInvalidator cacheInvalidator;
+    private final CacheManager cacheManager;
+
+    @Value("${todo.search.max-results:200}")
+    private int maxSearchResults;
+
+    @Value("${todo.batch.max-size:1000}")
+    private int maxBatchSize;
+
+    private static final int MAX_PAGE_SIZE = 1000;
+
+    private static final Sort ACTIVE_ORDER = Sort.by(Sort.Direction.DESC, "priority");
+    // Ties newest id first, like the keyset pages
+    private static final Sort COMPLETED_ORDER = Sort.by(Sort.Direction.DESC, "updatedAt", "id");
+    private static final Sort OVERDUE_ORDER = Sort.by(Sort.Direction.ASC, "dueDate");
 
     public List<TodoDto> getAllTodos() {
-        return repository.findAll()
-                .stream()
-                .map(mapper::toDto)
-                .toList();
+        return store.findAll();
+    }
+
+    public Slice<TodoDto> getAllTodos(Pageable pageable) {
+        return store.findAll(withOrder(pageable, Sort.unsorted()));
+    }
+
+    public CursorPage<TodoDto> getAllTodos(int limit, String cursor) {
+        int size = pageSize(limit);
+        long afterId = cursor == null ? 0L : TodoCursor.decode(cursor).id();
+        return toCursorPage(store.findAllAfter(afterId, size + 1), size, todo -> null);
     }
 
     public List<TodoDto> getActiveTodos() {
-        return repository.findByCompletedFalseOrderByPriorityDescCompletedDesc()
-                .stream()
-                .map(mapper::toDto)
-                .toList();
+        return cachedList(CacheConfig.ACTIVE_TODOS, versions.getChanges(), store::findActive);
+    }
+
+    public Slice<TodoDto> getActiveTodos(Pageable pageable) {
+        return store.findByCompleted(false, withOrder(pageable, ACTIVE_ORDER));
+    }
+
+    public CursorPage<TodoDto> getActiveTodos(int limit, String cursor) {
+        int size = pageSize(limit);
+        TodoCursor position = cursor == null ? null : TodoCursor.decode(cursor);
+        List<TodoDto> rows = position == null
+                ? store.findActiveAfter(null, 0L, size + 1)
+                : store.findActiveAfter(position.priority(), position.id(), size + 1);
+        return toCursorPage(rows, size, TodoDto::getPriority);
     }
 
     public List<TodoDto> getCompletedTodos() {
-        return repository.findByCompletedTrueOrderByUpdatedAtDesc()
-                .stream()
-                .map(mapper::toDto)
-                .toList();
+        return cachedList(CacheConfig.COMPLETED_TODOS, versions.getChanges(), store::findCompleted);
+    }
+
+    public Slice<TodoDto> getCompletedTodos(Pageable pageable) {
+        return store.findByCompleted(true, withOrder(pageable, COMPLETED_ORDER));
+    }
+
+    public CursorPage<TodoDto> getCompletedTodos(int limit, String cursor) {
+        int size = pageSize(limit);
+        TodoCursor position = cursor == null ? null : TodoCursor.decode(cursor);
+        List<TodoDto> rows = new ArrayList<>(size + 1);
+        if (position == null) {
+            rows.addAll(store.findCompletedAfter(null, Long.MAX_VALUE, size + 1));
+        } else if (position.sortKey() != null) {
+            rows.addAll(store.findCompletedAfter(position.dateTime(), position.id(), size + 1));
+        }
+        // Completed todos without an update timestamp sort after all the others
+        if (rows.size() <= size) {
+            long beforeId = position == null || position.sortKey() != null ? Long.MAX_VALUE : position.id();
+            rows.addAll(store.findCompletedNeverUpdated(beforeId, size + 1 - rows.size()));
+        }
+        return toCursorPage(rows, size, TodoDto::getUpdatedAt);
     }
 
     public TodoDto getById(Long id) {
-        return repository.findById(id)
-                .map(mapper::toDto)
+        Cache cache = cacheManager.getCache(CacheConfig.TODO_BY_ID);
+        TodoDto cached = cache == null ? null : cache.get(id, TodoDto.class);
+        if (cached != null) {
+            return cached;
+        }
+        long evictions = cacheInvalidator.getEvictions();
+        TodoDto todo = store.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Todo not found with id: " + id));
+        if (cache != null) {
+            cache.put(id, todo);
+            // An eviction that ran while the row was loading may have missed this put, so take it back;
+            // one that runs after the check removes it itself
+            if (cacheInvalidator.getEvictions() != evictions) {
+                cache.evict(id);
+            }
+        }
+        return todo;
     }
 
     public TodoDto createTodo(CreateTodoDto todoDto) {
-        var todo = mapper.toEntity(todoDto);
-        var savedTodo = repository.save(todo);
-        return mapper.toDto(savedTodo);
+        return statsTracker.write(() -> {
+            var savedTodo = store.insert(mapper.toEntity(todoDto));
+            events.publishEvent(TodoChangedEvent.created(savedTodo));
+            return savedTodo;
+        });
     }
 
     public TodoDto updateTodo(Long id, UpdateTodoDto todoDto) {
-        var existedTodo = repository.findById(id).orElseThrow(
-                () -> new EntityNotFoundException("Todo not found with id: " + id));
-        mapper.updateEntity(existedTodo, todoDto);
-        var updatedTodo = repository.save(existedTodo);
-        return mapper.toDto(updatedTodo);
+        return statsTracker.write(() -> {
+            var change = store.update(id, todo -> mapper.updateEntity(todo, todoDto)).orElseThrow(
+                    () -> new EntityNotFoundException("Todo not found with id: " + id));
+            events.publishEvent(TodoChangedEvent.updated(change.before(), change.after()));
+            return change.after();
+        });
     }
 
     public void deleteTodo(Long id) {
-        if (!repository.existsById(id)) {
-            throw new EntityNotFoundException("Todo not found with id: " + id);
-        }
-        repository.deleteById(id);
+        statsTracker.write(() -> {
+            var todo = store.delete(id).orElseThrow(
+                    () -> new EntityNotFoundException("Todo not found with id: " + id));
+            events.publishEvent(TodoChangedEvent.deleted(todo));
+            return todo;
+        });
+    }
+
+    public List<TodoDto> createTodos(List<CreateTodoDto> todoDtos) {
+        checkBatchSize(todoDtos.size());
+        return statsTracker.write(() -> {
+            var savedTodos = store.insertAll(mapper.toEntities(todoDtos));
+            publishBatch(TodoChangeType.CREATED, savedTodos.stream().map(TodoChangedEvent::created).toList());
+            return savedTodos;
+        });
+    }
+
+    public List<TodoDto> toggleCompleted(Collection<Long> ids, boolean completed) {
+        checkBatchSize(ids.size());
+        return statsTracker.write(() -> {
+            var changes = store.setCompleted(ids, completed, LocalDateTime.now());
+            // Todos already in that state are returned as they are, without an event
+            publishBatch(TodoChangeType.TOGGLED, changes.stream()
+                    .filter(change -> change.before() != change.after())
+                    .map(change -> TodoChangedEvent.toggled(change.before(), change.after()))
+                    .toList());
+            return changes.stream().map(TodoStore.Change::after).toList();
+        });
+    }
+
+    public int deleteTodos(Collection<Long> ids) {
+        checkBatchSize(ids.size());
+        return statsTracker.write(() -> {
+            var deleted = store.deleteAll(ids);
+            publishBatch(TodoChangeType.DELETED, deleted.stream().map(TodoChangedEvent::deleted).toList());
+            return deleted.size();
+        });
     }
 
     public TodoDto toggleCompleted(Long id, boolean completed) {
-        var todo = repository.findById(id)
-                .orElseThrow(() -> new EntityNotFoundException("Todo not found with id: " + id));
-        todo.setCompleted(completed);
-        todo.setUpdatedAt(LocalDateTime.now());
-        var savedTodo = repository.save(todo);
-        return mapper.toDto(savedTodo);
+        return statsTracker.write(() -> {
+            var change = store.update(id, todo -> {
+                todo.setCompleted(completed);
+                todo.setUpdatedAt(LocalDateTime.now());
+            }).orElseThrow(() -> new EntityNotFoundException("Todo not found with id: " + id));
+            events.publishEvent(TodoChangedEvent.toggled(change.before(), change.after()));
+            return change.after();
+        });
     }
 
     public List<TodoDto> searchTodos(String searchItem) {
         if (searchItem == null || searchItem.trim().isEmpty()) {
             return getAllTodos();
         }
-        return repository.findByTitleOrDescriptionContainingIgnoreCase(searchItem.trim())
-                .stream()
-                .map(mapper::toDto)
-                .toList();
+        return loadInOrder(searchEngine.search(searchItem.trim(), maxSearchResults));
+    }
+
+    public Slice<TodoDto> searchTodos(String searchItem, Pageable pageable) {
+        if (searchItem == null || searchItem.trim().isEmpty()) {
+            return getAllTodos(pageable);
+        }
+        List<Long> ids = searchEngine.search(searchItem.trim(), maxSearchResults);
+        if (pageable.getSort().isSorted()) {
+            return store.findAllById(ids, withOrder(pageable, Sort.unsorted()));
+        }
+        // Unsorted: keep the engine's ranking
+        int from = (int) Math.min(pageable.getOffset(), ids.size());
+        int to = Math.min(from + pageable.getPageSize(), ids.size());
+        return new SliceImpl<>(loadInOrder(ids.subList(from, to)), pageable, to < ids.size());
+    }
+
+    public CursorPage<TodoDto> searchTodos(String searchItem, int limit, String cursor) {
+        if (searchItem == null || searchItem.trim().isEmpty()) {
+            return getAllTodos(limit, cursor);
+        }
+        int size = pageSize(limit);
+        // Results are ranked, so the cursor is the score and id of the last hit rather than a sort column
+        TodoCursor position = cursor == null ? null : TodoCursor.decode(cursor);
+        TodoSearchEngine.Hit after = position == null ? null : new TodoSearchEngine.Hit(position.id(), position.score());
+        List<TodoSearchEngine.Hit> hits = searchEngine.searchAfter(searchItem.trim(), after, size + 1);
+        String nextCursor = null;
+        if (hits.size() > size) {
+            TodoSearchEngine.Hit last = hits.get(size - 1);
+            nextCursor = TodoCursor.encode(last.score(), last.id());
+            hits = hits.subList(0, size);
+        }
+        return new CursorPage<>(loadInOrder(hits.stream().map(TodoSearchEngine.Hit::id).toList()), nextCursor);
     }
 
     public List<TodoDto> getOverdueTodos() {
-        return repository.findByOverdueTodos(LocalDateTime.now())
-                .stream()
-                .map(mapper::toDto)
-                .toList();
+        return store.findOverdue(LocalDateTime.now());
+    }
+
+    public Slice<TodoDto> getOverdueTodos(Pageable pageable) {
+        return store.findOverdue(LocalDateTime.now(), withOrder(pageable, OVERDUE_ORDER));
+    }
+
+    public CursorPage<TodoDto> getOverdueTodos(int limit, String cursor) {
+        int size = pageSize(limit);
+        LocalDateTime now = LocalDateTime.now();
+        TodoCursor position = cursor == null ? null : TodoCursor.decode(cursor);
+        List<TodoDto> rows = position == null
+                ? store.findOverdueAfter(now, null, 0L, size + 1)
+                : store.findOverdueAfter(now, position.dateTime(), position.id(), size + 1);
+        return toCursorPage(rows, size, TodoDto::getDueDate);
     }
 
+    // Also keyed by date so the cached list rolls over at midnight
     public List<TodoDto> getTodayTodos() {
-        return repository.findTodoForDate(LocalDateTime.now())
-                .stream()
-                .map(mapper::toDto)
-                .toList();
+        LocalDate today = LocalDate.now();
+        return cachedList(CacheConfig.TODAY_TODOS, new SimpleKey(versions.getChanges(), today), () -> {
+            LocalDateTime from = today.atStartOfDay();
+            return store.findDueBetween(from, from.plusDays(1));
+        });
+    }
+
+    public CursorPage<TodoDto> getTodayTodos(int limit, String cursor) {
+        int size = pageSize(limit);
+        LocalDateTime from = LocalDate.now().atStartOfDay();
+        LocalDateTime to = from.plusDays(1);
+        TodoCursor position = cursor == null ? null : TodoCursor.decode(cursor);
+        List<TodoDto> rows = position == null
+                ? store.findDueBetweenAfter(from, to, null, 0L, size + 1)
+                : store.findDueBetweenAfter(from, to, position.dateTime(), position.id(), size + 1);
+        return toCursorPage(rows, size, TodoDto::getDueDate);
     }
 
     public TodoStats getStats() {
-        long totalTodos = repository.count();
-        long completedTodos = repository.countByCompletedTrue();
-        long activeTodos = repository.countByCompletedFalse();
-        long overdueTodos = getOverdueTodos().size();
-
-        return TodoStats.builder()
-                .totalTodos(totalTodos)
-                .completedTodos(completedTodos)
-                .activeTodos(activeTodos)
-                .overdueTodos(overdueTodos)
-                .build();
+        return statsTracker.getStats();
+    }
+
+    // Keyed by the change count read before the query, so a list loaded before a commit can only be cached
+    // under the count that was current when it started, never under the one the commit's ETag carries
+    private List<TodoDto> cachedList(String cacheName, Object key, Supplier<List<TodoDto>> loader) {
+        Cache cache = cacheManager.getCache(cacheName);
+        return cache == null ? loader.get() : cache.get(key, loader::get);
+    }
+
+    private void checkBatchSize(int size) {
+        if (size > maxBatchSize) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Batch size " + size + " exceeds the limit of " + maxBatchSize);
+        }
+    }
+
+    // One event for the whole batch, so listeners react once instead of once per row
+    private void publishBatch(TodoChangeType type, List<TodoChangedEvent> changes) {
+        if (!changes.isEmpty()) {
+            events.publishEvent(new TodosChangedEvent(type, changes));
+        }
+    }
+
+    private List<TodoDto> loadInOrder(List<Long> ids) {
+        Map<Long, TodoDto> todos = new HashMap<>();
+        for (TodoDto todo : store.findAllById(ids)) {
+            todos.put(todo.getId(), todo);
+        }
+        return ids.stream()
+                .map(todos::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    // Rows are fetched one past the page size so the presence of a next page is known without a count
+    private CursorPage<TodoDto> toCursorPage(List<TodoDto> rows, int size, Function<TodoDto, Object> sortKey) {
+        String nextCursor = null;
+        if (rows.size() > size) {
+            TodoDto last = rows.get(size - 1);
+            nextCursor = TodoCursor.encode(sortKey.apply(last), last.getId());
+            rows = rows.subList(0, size);
+        }
+        return new CursorPage<>(List.copyOf(rows), nextCursor);
+    }
+
+    private static int pageSize(int limit) {
+        return Math.clamp(limit, 1, MAX_PAGE_SIZE);
+    }
+
+    // Offset paging is only stable over a total order, so the id always breaks ties
+    private static Pageable withOrder(Pageable pageable, Sort defaultOrder) {
+        Sort sort = pageable.getSort().isSorted() ? pageable.getSort() : defaultOrder;
+        if (sort.getOrderFor("id") == null) {
+            sort = sort.and(Sort.by("id"));
+        }
+        return PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), sort);
     }
 }
@@ -0,0 +1,66 @@
+package io.sherdor.todoapp.service;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.sherdor.todoapp.dto.CursorPage;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.JoinPoint;
+import org.aspectj.lang.annotation.AfterReturning;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Records how many todos each {@code TodoService} list call returns, as the {@code todo.service.rows}
+ * summary tagged with the method name and, since the list calls come in overloads, its parameter types
+ * ({@code getAllTodos(int,String)}). One summary per method is built on first use and reused after that.
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class TodoServiceMetrics {
+    public static final String ROWS = "todo.service.rows";
+
+    private final MeterRegistry registry;
+    private final Map<Method, DistributionSummary> summaries = new ConcurrentHashMap<>();
+
+    @AfterReturning(pointcut = "execution(public * io.sherdor.todoapp.service.TodoService.*(..))", returning = "result")
+    public void recordRows(JoinPoint joinPoint, Object result) {
+        int rows;
+        if (result instanceof Collection<?> list) {
+            rows = list.size();
+        } else if (result instanceof Slice<?> slice) {
+            rows = slice.getNumberOfElements();
+        } else if (result instanceof CursorPage<?> page) {
+            rows = page.getItems().size();
+        } else {
+            return;
+        }
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        summaries.computeIfAbsent(method, this::summary).record(rows);
+    }
+
+    /** The {@code signature} tag of a method: its name and parameter types, as in {@code getAllTodos(int,String)}. */
+    public static String signature(Method method) {
+        return Arrays.stream(method.getParameterTypes())
+                .map(Class::getSimpleName)
+                .collect(Collectors.joining(",", method.getName() + "(", ")"));
+    }
+
+    private DistributionSummary summary(Method method) {
+        return DistributionSummary.builder(ROWS)
+                .description("Todos returned per TodoService list call")
+                .baseUnit("rows")
+                .tag("method", method.getName())
+                .tag("signature", signature(method))
+                .register(registry);
+    }
+}
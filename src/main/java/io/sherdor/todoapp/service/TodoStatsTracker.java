@@ -0,0 +1,268 @@
+package io.sherdor.todoapp.service;
+
+import io.sherdor.todoapp.config.TodoStats;
+import io.sherdor.todoapp.dto.TodoDto;
+import io.sherdor.todoapp.enums.Priority;
+import io.sherdor.todoapp.events.TodoChangedEvent;
+import io.sherdor.todoapp.events.TodosChangedEvent;
+import io.sherdor.todoapp.store.TodoStore;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * Keeps {@link TodoStats} in memory so reading them never touches the database.
+ * <p>
+ * Counters are updated from committed {@link TodoChangedEvent}s. Active todos whose due date is still
+ * ahead sit in a deadline queue ordered by due date; a periodic tick moves the expired ones into the
+ * overdue counters. Counters are seeded from the {@link TodoStore} on startup and re-seeded periodically to
+ * correct any drift from writes that bypass {@code TodoService}.
+ * <p>
+ * A write through {@code TodoService} commits before its event reaches this tracker. A re-seed reading the
+ * store in between would count the change once in its snapshot and again from the event, so each write and
+ * the publication of its event run inside {@link #write}, which only counts it in and out. A re-seed builds
+ * fresh counters from the store and swaps them in only if no write started or was running meanwhile,
+ * retrying a few times otherwise; writes never wait for it.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TodoStatsTracker {
+    private final TodoStore store;
+
+    private static final int RESEED_ATTEMPTS = 10;
+
+    // Replaced on every write's start and end, so a re-seed's compare-and-set fails if any write came between
+    private final AtomicReference<Writes> writes = new AtomicReference<>(new Writes(new Tally(), 0));
+    // Bumped after every counter update; the published stats are rebuilt on the first read after a bump
+    private final AtomicLong updates = new AtomicLong();
+    private volatile Snapshot snapshot = new Snapshot(-1, null);
+
+    private record Writes(Tally tally, int running) {
+    }
+
+    private static final class Tally {
+        final Counters[] counters = newCounters();
+        final NavigableSet<Deadline> upcoming = new ConcurrentSkipListSet<>();
+        final ConcurrentMap<Long, Deadline> upcomingById = new ConcurrentHashMap<>();
+    }
+
+    private record Deadline(LocalDateTime dueDate, long id, Priority priority) implements Comparable<Deadline> {
+        @Override
+        public int compareTo(Deadline other) {
+            int byDate = dueDate.compareTo(other.dueDate);
+            return byDate != 0 ? byDate : Long.compare(id, other.id);
+        }
+    }
+
+    private record Snapshot(long updates, TodoStats stats) {
+    }
+
+    private static final class Counters {
+        final LongAdder total = new LongAdder();
+        final LongAdder completed = new LongAdder();
+        final LongAdder overdue = new LongAdder();
+    }
+
+    /**
+     * Runs a store write together with the publication of its change event, so that a concurrent re-seed
+     * discards its snapshot instead of counting the change twice. Never waits for a re-seed.
+     */
+    public <T> T write(Supplier<T> write) {
+        writes.updateAndGet(w -> new Writes(w.tally(), w.running() + 1));
+        try {
+            return write.get();
+        } finally {
+            writes.updateAndGet(w -> new Writes(w.tally(), w.running() - 1));
+        }
+    }
+
+    public long getOverdueCount() {
+        long overdue = 0;
+        for (Counters c : writes.get().tally().counters) {
+            overdue += c.overdue.sum();
+        }
+        return overdue;
+    }
+
+    /**
+     * The current stats. Between changes every call returns the same immutable instance.
+     */
+    public TodoStats getStats() {
+        Snapshot current = snapshot;
+        // Read before the counters, so stats built concurrently with a change are at worst rebuilt once more
+        long seen = updates.get();
+        if (current.updates() == seen) {
+            return current.stats();
+        }
+        TodoStats stats = sumCounters();
+        snapshot = new Snapshot(seen, stats);
+        return stats;
+    }
+
+    private TodoStats sumCounters() {
+        Counters[] counters = writes.get().tally().counters;
+        Map<Priority, TodoStats.PriorityStats> byPriority = new EnumMap<>(Priority.class);
+        long totalTodos = 0;
+        long completedTodos = 0;
+        long overdueTodos = 0;
+        for (Priority priority : Priority.values()) {
+            Counters c = counters[priority.ordinal()];
+            long total = c.total.sum();
+            long completed = c.completed.sum();
+            long overdue = c.overdue.sum();
+            byPriority.put(priority, new TodoStats.PriorityStats(total, completed, total - completed, overdue));
+            totalTodos += total;
+            completedTodos += completed;
+            overdueTodos += overdue;
+        }
+
+        return TodoStats.builder()
+                .totalTodos(totalTodos)
+                .completedTodos(completedTodos)
+                .activeTodos(totalTodos - completedTodos)
+                .overdueTodos(overdueTodos)
+                .byPriority(Collections.unmodifiableMap(byPriority))
+                .build();
+    }
+
+    // Ahead of the UI broadcast, so pushed views read state that already includes the change
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTodoChanged(TodoChangedEvent event) {
+        apply(writes.get().tally(), event, LocalDateTime.now());
+        updates.incrementAndGet();
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTodosChanged(TodosChangedEvent event) {
+        Tally tally = writes.get().tally();
+        LocalDateTime now = LocalDateTime.now();
+        for (TodoChangedEvent change : event.getChanges()) {
+            apply(tally, change, now);
+        }
+        updates.incrementAndGet();
+    }
+
+    @Scheduled(fixedDelayString = "${todo.stats.overdue-tick:PT1S}")
+    public void promoteOverdue() {
+        Tally tally = writes.get().tally();
+        LocalDateTime now = LocalDateTime.now();
+        // Removing the id is the claim: a concurrent event for the same todo then finds it already overdue
+        for (Deadline expired : tally.upcoming.headSet(new Deadline(now, Long.MIN_VALUE, Priority.LOW))) {
+            if (tally.upcomingById.remove(expired.id(), expired)) {
+                tally.upcoming.remove(expired);
+                tally.counters[expired.priority().ordinal()].overdue.increment();
+                updates.incrementAndGet();
+            }
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${todo.stats.reconcile-interval:PT5M}",
+            fixedDelayString = "${todo.stats.reconcile-interval:PT5M}")
+    public void reseed() {
+        for (int attempt = 1; attempt <= RESEED_ATTEMPTS; attempt++) {
+            Writes before = writes.get();
+            if (before.running() == 0) {
+                Tally fresh = load(LocalDateTime.now());
+                if (writes.compareAndSet(before, new Writes(fresh, 0))) {
+                    updates.incrementAndGet();
+                    log.debug("Todo stats re-seeded: {}", getStats());
+                    return;
+                }
+            }
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(attempt));
+        }
+        // The counters kept up with every write through TodoService; only drift waits for the next interval
+        log.debug("Todo stats re-seed skipped, writes kept arriving during {} attempts", RESEED_ATTEMPTS);
+    }
+
+    private Tally load(LocalDateTime now) {
+        Tally tally = new Tally();
+        for (var row : store.countByPriority(now)) {
+            Counters c = tally.counters[row.getPriority().ordinal()];
+            c.total.add(row.getTotal());
+            c.completed.add(row.getCompleted());
+            c.overdue.add(row.getOverdue());
+        }
+        for (var row : store.findUpcomingDeadlines(now)) {
+            schedule(tally, new Deadline(row.getDueDate(), row.getId(), row.getPriority()));
+        }
+        return tally;
+    }
+
+    private static void apply(Tally tally, TodoChangedEvent event, LocalDateTime now) {
+        if (event.getBefore() != null) {
+            remove(tally, event.getBefore());
+        }
+        if (event.getAfter() != null) {
+            add(tally, event.getAfter(), now);
+        }
+    }
+
+    private static void add(Tally tally, TodoDto todo, LocalDateTime now) {
+        Counters c = tally.counters[todo.getPriority().ordinal()];
+        c.total.increment();
+        if (todo.isCompleted()) {
+            c.completed.increment();
+        } else if (todo.getDueDate() != null) {
+            if (todo.getDueDate().isBefore(now)) {
+                c.overdue.increment();
+            } else {
+                schedule(tally, new Deadline(todo.getDueDate(), todo.getId(), todo.getPriority()));
+            }
+        }
+    }
+
+    private static void remove(Tally tally, TodoDto todo) {
+        Counters c = tally.counters[todo.getPriority().ordinal()];
+        c.total.decrement();
+        if (todo.isCompleted()) {
+            c.completed.decrement();
+        } else if (todo.getDueDate() != null) {
+            Deadline pending = tally.upcomingById.remove(todo.getId());
+            if (pending != null) {
+                tally.upcoming.remove(pending);
+            } else {
+                // Not waiting in the queue any more, so it was already counted as overdue
+                c.overdue.decrement();
+            }
+        }
+    }
+
+    private static void schedule(Tally tally, Deadline deadline) {
+        tally.upcomingById.put(deadline.id(), deadline);
+        tally.upcoming.add(deadline);
+    }
+
+    private static Counters[] newCounters() {
+        Counters[] counters = new Counters[Priority.values().length];
+        for (int i = 0; i < counters.length; i++) {
+            counters[i] = new Counters();
+        }
+        return counters;
+    }
+}
@@ -0,0 +1,72 @@
+package io.sherdor.todoapp.service;
+
+import io.sherdor.todoapp.dto.TodoDto;
+import io.sherdor.todoapp.events.TodoChangedEvent;
+import io.sherdor.todoapp.events.TodosChangedEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Validators for conditional GETs. A single todo is tagged with its {@code @Version}; lists and stats with a
+ * counter of committed changes, so an unchanged poll can be answered with 304 before any query runs.
+ * <p>
+ * The counter starts from zero in every process, so collection tags also carry the start time. Results that
+ * change with the clock alone add what they depend on: the overdue count (moved by {@code TodoStatsTracker}'s
+ * tick, so up to one tick late) or today's date.
+ * <p>
+ * Tags are weak: the JSON and CBOR encodings of a version, gzipped or not, share one tag, and Tomcat leaves
+ * responses carrying a strong tag uncompressed.
+ */
+@Component
+@RequiredArgsConstructor
+public class TodoVersions {
+    private final TodoStatsTracker statsTracker;
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong changes = new AtomicLong();
+
+    // Runs after the search index (HIGHEST_PRECEDENCE), so a new tag is never served alongside search results
+    // from before the change; the list caches are keyed by this count, so the same holds for cached lists
+    @Order(Ordered.HIGHEST_PRECEDENCE + 1)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTodoChanged(TodoChangedEvent event) {
+        changes.incrementAndGet();
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE + 1)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTodosChanged(TodosChangedEvent event) {
+        changes.incrementAndGet();
+    }
+
+    public static String tag(TodoDto todo) {
+        return weak(Long.toString(todo.getVersion()));
+    }
+
+    // For lists that only change with writes: all, active, completed and search results
+    public String listTag() {
+        return weak(epoch + "-" + changes.get());
+    }
+
+    public String overdueTag() {
+        return weak(epoch + "-" + changes.get() + "-" + statsTracker.getOverdueCount());
+    }
+
+    public String todayTag() {
+        return weak(epoch + "-" + changes.get() + "-" + LocalDate.now());
+    }
+
+    public long getChanges() {
+        return changes.get();
+    }
+
+    private static String weak(String tag) {
+        return "W/\"" + tag + "\"";
+    }
+}
@@ -0,0 +1,187 @@
+package io.sherdor.todoapp.store;
+
+import io.sherdor.todoapp.dto.TodoDto;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+
+/**
+ * Writes the store's changes behind to the database. Each change marks its todo dirty, and a periodic
+ * flush upserts or deletes the dirty rows in one transaction, sent in JDBC batches. A flush is therefore
+ * written completely or not at all, and so is every batch of changes it holds. Repeated writes to one todo
+ * between flushes cost a single row, and the backlog can never outgrow the todos themselves. Writes since
+ * the last flush are lost if the JVM dies without shutting down.
+ * <p>
+ * Ids come from the same sequence Hibernate uses, so the store modes can be switched back and forth on
+ * one database.
+ */
+@Slf4j
+public class DatabaseJournal implements TodoJournal {
+    // Same allocation as Todo's @SequenceGenerator: each sequence value v reserves the ids (v - 50, v]
+    private static final int ID_BLOCK = 50;
+    private static final String NEXT_ID_BLOCK = "select next value for todos_seq";
+    private static final String UPSERT = "merge into todos " +
+            "(id, title, description, completed, priority, created_at, updated_at, due_date, version) " +
+            "key (id) values (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String DELETE = "delete from todos where id = ?";
+
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate transaction;
+    private final int batchSize;
+
+    private final Lock dirtyLock = new ReentrantLock();
+    // Held for a whole flush, so flushes write in the order their batches were taken
+    private final Lock flushLock = new ReentrantLock();
+    // Guarded by dirtyLock: dirty todos by id, null for a deletion
+    private Map<Long, TodoDto> dirty = new LinkedHashMap<>();
+    private long nextId = 1;
+    private long lastId = 0;
+
+    public DatabaseJournal(JdbcTemplate jdbc, TransactionTemplate transaction, int batchSize) {
+        this.jdbc = jdbc;
+        this.transaction = transaction;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public boolean recover(BiConsumer<Long, TodoDto> replay) {
+        // The database itself is the saved state
+        return false;
+    }
+
+    @Override
+    public long nextId() {
+        if (nextId > lastId) {
+            long hi = Objects.requireNonNull(jdbc.queryForObject(NEXT_ID_BLOCK, Long.class));
+            nextId = Math.max(hi - ID_BLOCK + 1, 1);
+            lastId = hi;
+        }
+        return nextId++;
+    }
+
+    @Override
+    public long record(long id, TodoDto todo) {
+        dirtyLock.lock();
+        try {
+            dirty.put(id, todo);
+        } finally {
+            dirtyLock.unlock();
+        }
+        return 0;
+    }
+
+    @Override
+    public long recordAll(Map<Long, TodoDto> todos) {
+        dirtyLock.lock();
+        try {
+            dirty.putAll(todos);
+        } finally {
+            dirtyLock.unlock();
+        }
+        return 0;
+    }
+
+    @Override
+    public void await(long position) {
+        // Written behind: callers never wait for the database
+    }
+
+    @Override
+    public long position() {
+        return 0;
+    }
+
+    @Override
+    public void checkpoint(List<TodoDto> todos, long position) {
+        // Every flush already leaves the complete state in the database
+    }
+
+    @Override
+    public void flush() {
+        flushLock.lock();
+        try {
+            Map<Long, TodoDto> batch;
+            dirtyLock.lock();
+            try {
+                if (dirty.isEmpty()) {
+                    return;
+                }
+                batch = dirty;
+                dirty = new LinkedHashMap<>();
+            } finally {
+                dirtyLock.unlock();
+            }
+            try {
+                write(batch);
+            } catch (RuntimeException e) {
+                // Requeue whatever has not been written again since, for the next flush to retry
+                dirtyLock.lock();
+                try {
+                    batch.forEach((id, todo) -> {
+                        if (!dirty.containsKey(id)) {
+                            dirty.put(id, todo);
+                        }
+                    });
+                } finally {
+                    dirtyLock.unlock();
+                }
+                log.warn("Write-behind flush of {} todos failed, retrying on the next flush", batch.size(), e);
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    // One transaction, so a crash cannot keep part of a batch the store recorded as one change
+    private void write(Map<Long, TodoDto> batch) {
+        long start = System.nanoTime();
+        List<Object[]> upserts = new ArrayList<>(Math.min(batch.size(), batchSize));
+        List<Object[]> deletes = new ArrayList<>();
+        transaction.executeWithoutResult(status -> {
+            for (Map.Entry<Long, TodoDto> entry : batch.entrySet()) {
+                if (entry.getValue() == null) {
+                    deletes.add(new Object[]{entry.getKey()});
+                } else {
+                    upserts.add(toRow(entry.getValue()));
+                }
+                if (upserts.size() + deletes.size() == batchSize) {
+                    writeChunk(upserts, deletes);
+                }
+            }
+            writeChunk(upserts, deletes);
+        });
+        log.debug("Flushed {} todos in {} ms", batch.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private void writeChunk(List<Object[]> upserts, List<Object[]> deletes) {
+        if (!upserts.isEmpty()) {
+            jdbc.batchUpdate(UPSERT, upserts);
+        }
+        if (!deletes.isEmpty()) {
+            jdbc.batchUpdate(DELETE, deletes);
+        }
+        upserts.clear();
+        deletes.clear();
+    }
+
+    private static Object[] toRow(TodoDto todo) {
+        return new Object[]{todo.getId(), todo.getTitle(), todo.getDescription(), todo.isCompleted(),
+                todo.getPriority().name(), timestamp(todo.getCreatedAt()), timestamp(todo.getUpdatedAt()),
+                timestamp(todo.getDueDate()), todo.getVersion()};
+    }
+
+    private static Timestamp timestamp(LocalDateTime dateTime) {
+        return dateTime == null ? null : Timestamp.valueOf(dateTime);
+    }
+}
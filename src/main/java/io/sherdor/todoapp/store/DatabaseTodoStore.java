@@ -0,0 +1,223 @@
+package io.sherdor.todoapp.store;
+
+import io.sherdor.todoapp.dto.TodoDto;
+import io.sherdor.todoapp.entity.Todo;
+import io.sherdor.todoapp.enums.Priority;
+import io.sherdor.todoapp.mappers.TodoMapper;
+import io.sherdor.todoapp.repositories.TodoRepository;
+import io.sherdor.todoapp.repositories.TodoRepository.DeadlineView;
+import io.sherdor.todoapp.repositories.TodoRepository.PriorityCounts;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Reads and writes every todo through {@link TodoRepository}, inside a transaction per call.
+ */
+@Component
+@ConditionalOnProperty(name = "todo.store.mode", havingValue = "database", matchIfMissing = true)
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class DatabaseTodoStore implements TodoStore {
+    private final TodoRepository repository;
+    private final TodoMapper mapper;
+
+    @Override
+    public Optional<TodoDto> findById(long id) {
+        return repository.findById(id).map(mapper::toDto);
+    }
+
+    @Override
+    public List<TodoDto> findAllById(Collection<Long> ids) {
+        return repository.findByIdIn(ids);
+    }
+
+    @Override
+    public Slice<TodoDto> findAllById(Collection<Long> ids, Pageable pageable) {
+        return repository.findByIdIn(ids, pageable);
+    }
+
+    @Override
+    public List<TodoDto> findAll() {
+        return repository.findAllByOrderByIdAsc();
+    }
+
+    @Override
+    public Slice<TodoDto> findAll(Pageable pageable) {
+        return repository.findAllBy(pageable);
+    }
+
+    @Override
+    public List<TodoDto> findAllAfter(long afterId, int limit) {
+        return repository.findByIdGreaterThanOrderByIdAsc(afterId, Limit.of(limit));
+    }
+
+    @Override
+    public Stream<TodoDto> streamAll() {
+        return repository.streamAll();
+    }
+
+    @Override
+    public long count() {
+        return repository.count();
+    }
+
+    @Override
+    public Slice<TodoDto> findByCompleted(boolean completed, Pageable pageable) {
+        return repository.findByCompleted(completed, pageable);
+    }
+
+    @Override
+    public List<TodoDto> findActive() {
+        return repository.findByCompletedFalseOrderByPriorityDescCompletedDesc();
+    }
+
+    @Override
+    public List<TodoDto> findActiveAfter(Priority priority, long afterId, int limit) {
+        return priority == null
+                ? repository.findByCompletedFalseOrderByPriorityDescIdAsc(Limit.of(limit))
+                : repository.findActiveAfter(priority, afterId, Limit.of(limit));
+    }
+
+    @Override
+    public List<TodoDto> findCompleted() {
+        return repository.findByCompletedTrueOrderByUpdatedAtDesc();
+    }
+
+    @Override
+    public List<TodoDto> findCompletedAfter(LocalDateTime updatedAt, long beforeId, int limit) {
+        return updatedAt == null
+                ? repository.findByCompletedTrueAndUpdatedAtNotNullOrderByUpdatedAtDescIdDesc(Limit.of(limit))
+                : repository.findCompletedAfter(updatedAt, beforeId, Limit.of(limit));
+    }
+
+    @Override
+    public List<TodoDto> findCompletedNeverUpdated(long beforeId, int limit) {
+        return repository.findByCompletedTrueAndUpdatedAtNullAndIdLessThanOrderByIdDesc(beforeId, Limit.of(limit));
+    }
+
+    @Override
+    public List<TodoDto> findOverdue(LocalDateTime now) {
+        return repository.findByOverdueTodos(now);
+    }
+
+    @Override
+    public Slice<TodoDto> findOverdue(LocalDateTime now, Pageable pageable) {
+        return repository.findByOverdueTodos(now, pageable);
+    }
+
+    @Override
+    public List<TodoDto> findOverdueAfter(LocalDateTime now, LocalDateTime dueDate, long afterId, int limit) {
+        return dueDate == null
+                ? repository.findByCompletedFalseAndDueDateBeforeOrderByDueDateAscIdAsc(now, Limit.of(limit))
+                : repository.findOverdueAfter(now, dueDate, afterId, Limit.of(limit));
+    }
+
+    @Override
+    public List<TodoDto> findDueBetween(LocalDateTime from, LocalDateTime to) {
+        return repository.findTodoForDate(from, to);
+    }
+
+    @Override
+    public List<TodoDto> findDueBetweenAfter(LocalDateTime from, LocalDateTime to, LocalDateTime dueDate,
+                                             long afterId, int limit) {
+        // Seeking from (from, id 0) also finds the first page: every row due in the range follows it
+        return dueDate == null
+                ? repository.findDueBetweenAfter(from, to, from, 0L, Limit.of(limit))
+                : repository.findDueBetweenAfter(from, to, dueDate, afterId, Limit.of(limit));
+    }
+
+    @Override
+    public List<PriorityCounts> countByPriority(LocalDateTime now) {
+        return repository.countByPriority(now);
+    }
+
+    @Override
+    public List<DeadlineView> findUpcomingDeadlines(LocalDateTime now) {
+        return repository.findUpcomingDeadlines(now);
+    }
+
+    @Override
+    @Transactional
+    public TodoDto insert(Todo todo) {
+        return mapper.toDto(repository.save(todo));
+    }
+
+    @Override
+    @Transactional
+    public List<TodoDto> insertAll(List<Todo> todos) {
+        // Inserts go out as JDBC batches (hibernate.jdbc.batch_size)
+        return mapper.toDtos(repository.saveAll(todos));
+    }
+
+    @Override
+    @Transactional
+    public Optional<Change> update(long id, Consumer<Todo> change) {
+        return repository.findById(id).map(todo -> {
+            var before = mapper.toDto(todo);
+            change.accept(todo);
+            // Flushed so the returned todo carries its incremented version
+            return new Change(before, mapper.toDto(repository.saveAndFlush(todo)));
+        });
+    }
+
+    @Override
+    @Transactional
+    public Optional<TodoDto> delete(long id) {
+        return repository.findById(id).map(todo -> {
+            repository.delete(todo);
+            return mapper.toDto(todo);
+        });
+    }
+
+    @Override
+    @Transactional
+    public List<Change> setCompleted(Collection<Long> ids, boolean completed, LocalDateTime updatedAt) {
+        // Locked until the commit, so no other write can slip in between this read and the update, and the
+        // states derived from it are the ones the update leaves
+        List<Change> changes = new ArrayList<>();
+        List<Long> toUpdate = new ArrayList<>();
+        for (Todo todo : repository.lockByIdIn(ids)) {
+            TodoDto before = mapper.toDto(todo);
+            if (todo.isCompleted() == completed) {
+                changes.add(new Change(before, before));
+                continue;
+            }
+            toUpdate.add(todo.getId());
+            changes.add(new Change(before, new TodoDto(todo.getId(), todo.getTitle(), todo.getDescription(),
+                    completed, todo.getPriority(), todo.getCreatedAt(), updatedAt, todo.getDueDate(),
+                    todo.getVersion() + 1)));
+        }
+        if (!toUpdate.isEmpty()) {
+            repository.bulkUpdateCompleted(toUpdate, completed, updatedAt);
+        }
+        return changes;
+    }
+
+    @Override
+    @Transactional
+    public List<TodoDto> deleteAll(Collection<Long> ids) {
+        var before = repository.findByIdIn(ids);
+        if (!before.isEmpty()) {
+            repository.bulkDelete(ids);
+        }
+        return before;
+    }
+
+    @Override
+    public void reload() {
+        // Nothing is held in memory
+    }
+}
@@ -0,0 +1,700 @@
+package io.sherdor.todoapp.store;
+
+import io.sherdor.todoapp.dto.TodoDto;
+import io.sherdor.todoapp.entity.Todo;
+import io.sherdor.todoapp.enums.Priority;
+import io.sherdor.todoapp.mappers.TodoMapper;
+import io.sherdor.todoapp.repositories.TodoRepository.DeadlineView;
+import io.sherdor.todoapp.repositories.TodoRepository.PriorityCounts;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mapping.PropertyReferenceException;
+import org.springframework.data.util.TypeInformation;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Keeps every todo in memory and serves all reads from there, without touching the database.
+ * <p>
+ * Todos live in a primary set ordered by id, next to three sorted indexes mirroring the database ones:
+ * (completed, priority), (completed, updated at) and (completed, due date), each ordered exactly like the
+ * list it serves, so every list and keyset page is a range scan. All four are immutable
+ * {@link PersistentSortedSet}s held together in one {@code State}: a write builds the next state, sharing
+ * everything it did not change, and publishes it with a single volatile write. Readers take no locks; a
+ * query reads the state once and runs entirely against that version, so it sees each write, batches
+ * included, either completely or not at all. Writers are serialized. Offset pages in the order of an index
+ * (or its reverse) walk that index; pages in any other order take one pass over the matching rows.
+ * <p>
+ * Every change is handed to a {@link TodoJournal}, which keeps it durable: written behind to the database
+ * or appended to a local log ({@code todo.store.journal}). On startup the store replays the journal, or loads
+ * the database when the journal holds nothing of its own yet. A periodic checkpoint hands the journal the
+ * complete state, so that recovery does not have to replay the whole history.
+ * <p>
+ * A write is journaled before its state is published, so a journal that can no longer write rejects it
+ * before anyone sees it. A batch is journaled as one change ({@link TodoJournal#recordAll}), which recovery
+ * replays completely or not at all.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "todo.store.mode", havingValue = "memory")
+@RequiredArgsConstructor
+public class InMemoryTodoStore implements TodoStore {
+    private static final String SELECT_ALL = "select id, title, description, completed, priority, " +
+            "created_at, updated_at, due_date, version from todos";
+
+    private static final Comparator<TodoDto> ID_ORDER = Comparator.comparing(TodoDto::getId);
+    // (completed, priority desc, id): active todos come first, in the active list's order
+    private static final Comparator<TodoDto> PRIORITY_ORDER = Comparator.comparing(TodoDto::isCompleted)
+            .thenComparing(TodoDto::getPriority, Comparator.reverseOrder())
+            .thenComparing(TodoDto::getId);
+    // (completed, updated at desc, id desc): never-updated todos sort after the others, as on the completed list
+    private static final Comparator<TodoDto> UPDATED_AT_ORDER = Comparator.comparing(TodoDto::isCompleted)
+            .thenComparing(TodoDto::getUpdatedAt, Comparator.nullsLast(Comparator.reverseOrder()))
+            .thenComparing(TodoDto::getId, Comparator.reverseOrder());
+    // (completed, due date, id): holds only todos with a due date
+    private static final Comparator<TodoDto> DUE_DATE_ORDER = Comparator.comparing(TodoDto::isCompleted)
+            .thenComparing(TodoDto::getDueDate, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(TodoDto::getId);
+
+    // The index orders as Sorts, to recognize the offset pages an index can serve
+    private static final Sort ID_SORT = Sort.by("id");
+    private static final Sort PRIORITY_SORT = Sort.by(Sort.Direction.DESC, "priority").and(Sort.by("id"));
+    private static final Sort UPDATED_AT_SORT = Sort.by(Sort.Direction.DESC, "updatedAt", "id");
+    private static final Sort DUE_DATE_SORT = Sort.by("dueDate", "id");
+
+    // Sortable properties for offset pages; nulls sort low, as in H2
+    private static final Map<String, Comparator<TodoDto>> SORTABLE = Map.of(
+            "id", Comparator.comparing(TodoDto::getId),
+            "title", Comparator.comparing(TodoDto::getTitle),
+            "description", Comparator.comparing(TodoDto::getDescription, Comparator.nullsFirst(Comparator.naturalOrder())),
+            "completed", Comparator.comparing(TodoDto::isCompleted),
+            "priority", Comparator.comparing(TodoDto::getPriority),
+            "createdAt", Comparator.comparing(TodoDto::getCreatedAt, Comparator.nullsFirst(Comparator.naturalOrder())),
+            "updatedAt", Comparator.comparing(TodoDto::getUpdatedAt, Comparator.nullsFirst(Comparator.naturalOrder())),
+            "dueDate", Comparator.comparing(TodoDto::getDueDate, Comparator.nullsFirst(Comparator.naturalOrder())),
+            "version", Comparator.comparing(TodoDto::getVersion));
+
+    private final JdbcTemplate jdbc;
+    private final TodoJournal journal;
+    private final TodoMapper mapper;
+    private final Validator validator;
+
+    private final Lock writeLock = new ReentrantLock();
+    // Replaced as a whole by every write, under writeLock
+    private volatile State state = State.EMPTY;
+    // Journal position of the last checkpoint
+    private volatile long checkpointed;
+
+    // One version of every todo and index. The due date index holds only todos with a due date.
+    private record State(PersistentSortedSet<TodoDto> byId, PersistentSortedSet<TodoDto> byPriority,
+                         PersistentSortedSet<TodoDto> byUpdatedAt, PersistentSortedSet<TodoDto> byDueDate) {
+        static final State EMPTY = new State(PersistentSortedSet.empty(ID_ORDER),
+                PersistentSortedSet.empty(PRIORITY_ORDER), PersistentSortedSet.empty(UPDATED_AT_ORDER),
+                PersistentSortedSet.empty(DUE_DATE_ORDER));
+
+        TodoDto get(long id) {
+            return byId.find(idKey(id));
+        }
+
+        // The next state, with before replaced by after; either is null for an insert or a delete
+        State apply(TodoDto before, TodoDto after) {
+            return new State(change(byId, before, after), change(byPriority, before, after),
+                    change(byUpdatedAt, before, after), change(byDueDate, withDueDate(before), withDueDate(after)));
+        }
+
+        private static PersistentSortedSet<TodoDto> change(PersistentSortedSet<TodoDto> index, TodoDto before,
+                                                           TodoDto after) {
+            if (before != null && (after == null || index.comparator().compare(before, after) != 0)) {
+                index = index.without(before);
+            }
+            return after == null ? index : index.with(after);
+        }
+
+        private static TodoDto withDueDate(TodoDto todo) {
+            return todo != null && todo.getDueDate() != null ? todo : null;
+        }
+    }
+
+    @lombok.Value
+    private static class Counts implements PriorityCounts {
+        Priority priority;
+        long total;
+        long completed;
+        long overdue;
+    }
+
+    @lombok.Value
+    private static class Deadline implements DeadlineView {
+        Long id;
+        LocalDateTime dueDate;
+        Priority priority;
+    }
+
+    @PostConstruct
+    @Override
+    public void reload() {
+        journal.flush();
+        writeLock.lock();
+        try {
+            long start = System.nanoTime();
+            // Built aside and published once complete
+            AtomicReference<State> loaded = new AtomicReference<>(State.EMPTY);
+            BiConsumer<Long, TodoDto> replay = (id, todo) -> loaded.set(replay(loaded.get(), id, todo));
+            if (!journal.recover(replay)) {
+                jdbc.query(SELECT_ALL, (RowCallbackHandler) rs -> replay.accept(rs.getLong("id"), toDto(rs)));
+                // Gives a new journal its starting state
+                if (!loaded.get().byId().isEmpty()) {
+                    journal.checkpoint(loaded.get().byId().stream().toList(), journal.position());
+                }
+            }
+            state = loaded.get();
+            checkpointed = journal.position();
+            log.info("Loaded {} todos into the in-memory store in {} ms", state.byId().size(),
+                    (System.nanoTime() - start) / 1_000_000);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public Optional<TodoDto> findById(long id) {
+        return Optional.ofNullable(state.get(id));
+    }
+
+    @Override
+    public List<TodoDto> findAllById(Collection<Long> ids) {
+        State current = state;
+        return ids.stream()
+                .distinct()
+                .map(current::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    @Override
+    public Slice<TodoDto> findAllById(Collection<Long> ids, Pageable pageable) {
+        return slice(findAllById(ids).stream(), pageable);
+    }
+
+    @Override
+    public List<TodoDto> findAll() {
+        return state.byId().stream().toList();
+    }
+
+    @Override
+    public Slice<TodoDto> findAll(Pageable pageable) {
+        Sort sort = pageable.getSort();
+        State current = state;
+        if (sort.isUnsorted() || sort.equals(ID_SORT)) {
+            return slice(current.byId().all(), pageable);
+        }
+        if (sort.equals(ID_SORT.reverse())) {
+            return slice(current.byId().all().descending(), pageable);
+        }
+        return slice(current.byId().stream(), pageable);
+    }
+
+    @Override
+    public List<TodoDto> findAllAfter(long afterId, int limit) {
+        return read(state.byId().range(idKey(afterId), false, null, false), limit);
+    }
+
+    @Override
+    public Stream<TodoDto> streamAll() {
+        return state.byId().stream();
+    }
+
+    @Override
+    public long count() {
+        return state.byId().size();
+    }
+
+    @Override
+    public Slice<TodoDto> findByCompleted(boolean completed, Pageable pageable) {
+        Sort sort = pageable.getSort();
+        State current = state;
+        PersistentSortedSet<TodoDto>.View rows = inOrder(
+                withCompleted(current.byPriority(), completed, priorityKey(true, Priority.URGENT, Long.MIN_VALUE)),
+                PRIORITY_SORT, sort);
+        if (rows == null) {
+            rows = inOrder(withCompleted(current.byUpdatedAt(), completed,
+                    updatedAtKey(true, LocalDateTime.MAX, Long.MAX_VALUE)), UPDATED_AT_SORT, sort);
+        }
+        if (rows != null) {
+            return slice(rows, pageable);
+        }
+        return slice(current.byId().stream().filter(todo -> todo.isCompleted() == completed), pageable);
+    }
+
+    @Override
+    public List<TodoDto> findActive() {
+        return findActiveAfter(null, 0, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public List<TodoDto> findActiveAfter(Priority priority, long afterId, int limit) {
+        TodoDto end = priorityKey(true, Priority.URGENT, Long.MIN_VALUE);
+        PersistentSortedSet<TodoDto> byPriority = state.byPriority();
+        return read(priority == null
+                ? byPriority.range(priorityKey(false, Priority.URGENT, Long.MIN_VALUE), true, end, false)
+                : byPriority.range(priorityKey(false, priority, afterId), false, end, false), limit);
+    }
+
+    @Override
+    public List<TodoDto> findCompleted() {
+        return read(state.byUpdatedAt().range(updatedAtKey(true, LocalDateTime.MAX, Long.MAX_VALUE), true, null, false),
+                Integer.MAX_VALUE);
+    }
+
+    @Override
+    public List<TodoDto> findCompletedAfter(LocalDateTime updatedAt, long beforeId, int limit) {
+        TodoDto end = updatedAtKey(true, null, Long.MAX_VALUE);
+        PersistentSortedSet<TodoDto> byUpdatedAt = state.byUpdatedAt();
+        return read(updatedAt == null
+                ? byUpdatedAt.range(updatedAtKey(true, LocalDateTime.MAX, Long.MAX_VALUE), true, end, false)
+                : byUpdatedAt.range(updatedAtKey(true, updatedAt, beforeId), false, end, false), limit);
+    }
+
+    @Override
+    public List<TodoDto> findCompletedNeverUpdated(long beforeId, int limit) {
+        return read(state.byUpdatedAt().range(updatedAtKey(true, null, beforeId), false, null, false), limit);
+    }
+
+    @Override
+    public List<TodoDto> findOverdue(LocalDateTime now) {
+        return findOverdueAfter(now, null, 0, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public Slice<TodoDto> findOverdue(LocalDateTime now, Pageable pageable) {
+        PersistentSortedSet<TodoDto>.View rows = inOrder(state.byDueDate().range(
+                dueDateKey(false, LocalDateTime.MIN, Long.MIN_VALUE), true, dueDateKey(false, now, Long.MIN_VALUE), false),
+                DUE_DATE_SORT, pageable.getSort());
+        if (rows != null) {
+            return slice(rows, pageable);
+        }
+        return slice(findOverdue(now).stream(), pageable);
+    }
+
+    @Override
+    public List<TodoDto> findOverdueAfter(LocalDateTime now, LocalDateTime dueDate, long afterId, int limit) {
+        return findDueBetweenAfter(LocalDateTime.MIN, now, dueDate, afterId, limit);
+    }
+
+    @Override
+    public List<TodoDto> findDueBetween(LocalDateTime from, LocalDateTime to) {
+        return findDueBetweenAfter(from, to, null, 0, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public List<TodoDto> findDueBetweenAfter(LocalDateTime from, LocalDateTime to, LocalDateTime dueDate,
+                                             long afterId, int limit) {
+        TodoDto start = dueDateKey(false, from, Long.MIN_VALUE);
+        TodoDto end = dueDateKey(false, to, Long.MIN_VALUE);
+        PersistentSortedSet<TodoDto> byDueDate = state.byDueDate();
+        if (dueDate != null) {
+            TodoDto position = dueDateKey(false, dueDate, afterId);
+            if (DUE_DATE_ORDER.compare(position, start) >= 0) {
+                return read(byDueDate.range(position, false, end, false), limit);
+            }
+        }
+        return read(byDueDate.range(start, true, end, false), limit);
+    }
+
+    @Override
+    public List<PriorityCounts> countByPriority(LocalDateTime now) {
+        long[][] counts = new long[Priority.values().length][3];
+        for (TodoDto todo : state.byId()) {
+            long[] c = counts[todo.getPriority().ordinal()];
+            c[0]++;
+            if (todo.isCompleted()) {
+                c[1]++;
+            } else if (todo.getDueDate() != null && todo.getDueDate().isBefore(now)) {
+                c[2]++;
+            }
+        }
+        List<PriorityCounts> rows = new ArrayList<>();
+        for (Priority priority : Priority.values()) {
+            long[] c = counts[priority.ordinal()];
+            if (c[0] > 0) {
+                rows.add(new Counts(priority, c[0], c[1], c[2]));
+            }
+        }
+        return rows;
+    }
+
+    @Override
+    public List<DeadlineView> findUpcomingDeadlines(LocalDateTime now) {
+        return read(state.byDueDate().range(dueDateKey(false, now, Long.MIN_VALUE), true,
+                dueDateKey(true, LocalDateTime.MIN, Long.MIN_VALUE), false), Integer.MAX_VALUE).stream()
+                .<DeadlineView>map(todo -> new Deadline(todo.getId(), todo.getDueDate(), todo.getPriority()))
+                .toList();
+    }
+
+    @Override
+    public TodoDto insert(Todo todo) {
+        validate(todo);
+        TodoDto saved;
+        long position;
+        writeLock.lock();
+        try {
+            saved = add(todo);
+            position = journal.position();
+        } finally {
+            writeLock.unlock();
+        }
+        journal.await(position);
+        return saved;
+    }
+
+    @Override
+    public List<TodoDto> insertAll(List<Todo> todos) {
+        // All or nothing, as in the database store's transaction: published and journaled as one change
+        todos.forEach(this::validate);
+        List<TodoDto> saved;
+        long position;
+        writeLock.lock();
+        try {
+            saved = new ArrayList<>(todos.size());
+            List<Change> changes = new ArrayList<>(todos.size());
+            for (Todo todo : todos) {
+                TodoDto created = created(todo);
+                saved.add(created);
+                changes.add(new Change(null, created));
+            }
+            applyAll(changes);
+            position = journal.position();
+        } finally {
+            writeLock.unlock();
+        }
+        journal.await(position);
+        return saved;
+    }
+
+    @Override
+    public Optional<Change> update(long id, Consumer<Todo> change) {
+        Change result;
+        long position;
+        writeLock.lock();
+        try {
+            TodoDto before = state.get(id);
+            if (before == null) {
+                return Optional.empty();
+            }
+            Todo todo = toEntity(before);
+            change.accept(todo);
+            if (mapper.toDto(todo).equals(before)) {
+                return Optional.of(new Change(before, before));
+            }
+            // What @PreUpdate and @Version do for a dirty entity
+            todo.setUpdatedAt(LocalDateTime.now());
+            todo.setVersion(before.getVersion() + 1);
+            validate(todo);
+            TodoDto after = stored(mapper.toDto(todo));
+            apply(before, after);
+            result = new Change(before, after);
+            position = journal.position();
+        } finally {
+            writeLock.unlock();
+        }
+        journal.await(position);
+        return Optional.of(result);
+    }
+
+    @Override
+    public Optional<TodoDto> delete(long id) {
+        TodoDto before;
+        long position;
+        writeLock.lock();
+        try {
+            before = state.get(id);
+            if (before == null) {
+                return Optional.empty();
+            }
+            apply(before, null);
+            position = journal.position();
+        } finally {
+            writeLock.unlock();
+        }
+        journal.await(position);
+        return Optional.of(before);
+    }
+
+    @Override
+    public List<Change> setCompleted(Collection<Long> ids, boolean completed, LocalDateTime updatedAt) {
+        List<Change> changes = new ArrayList<>();
+        long position;
+        writeLock.lock();
+        try {
+            for (TodoDto before : findAllById(ids)) {
+                if (before.isCompleted() == completed) {
+                    changes.add(new Change(before, before));
+                    continue;
+                }
+                var after = new TodoDto(before.getId(), before.getTitle(), before.getDescription(), completed,
+                        before.getPriority(), before.getCreatedAt(), toColumn(updatedAt), before.getDueDate(),
+                        before.getVersion() + 1);
+                changes.add(new Change(before, after));
+            }
+            applyAll(changes.stream().filter(change -> change.before() != change.after()).toList());
+            position = journal.position();
+        } finally {
+            writeLock.unlock();
+        }
+        journal.await(position);
+        return changes;
+    }
+
+    @Override
+    public List<TodoDto> deleteAll(Collection<Long> ids) {
+        List<TodoDto> deleted;
+        long position;
+        writeLock.lock();
+        try {
+            deleted = findAllById(ids);
+            applyAll(deleted.stream().map(todo -> new Change(todo, null)).toList());
+            position = journal.position();
+        } finally {
+            writeLock.unlock();
+        }
+        journal.await(position);
+        return deleted;
+    }
+
+    @Scheduled(fixedDelayString = "${todo.store.flush-interval:PT1S}")
+    public void flush() {
+        journal.flush();
+    }
+
+    @Scheduled(initialDelayString = "${todo.store.checkpoint-interval:PT5M}",
+            fixedDelayString = "${todo.store.checkpoint-interval:PT5M}")
+    public void checkpoint() {
+        State current;
+        long position;
+        writeLock.lock();
+        try {
+            position = journal.position();
+            if (position == checkpointed) {
+                return;
+            }
+            // Taken under the lock, so the state is exactly the one as of the position
+            current = state;
+        } finally {
+            writeLock.unlock();
+        }
+        journal.checkpoint(current.byId().stream().toList(), position);
+        checkpointed = position;
+    }
+
+    @PreDestroy
+    public void close() {
+        checkpoint();
+        journal.flush();
+    }
+
+    // Callers hold writeLock
+    private TodoDto add(Todo todo) {
+        TodoDto saved = created(todo);
+        apply(null, saved);
+        return saved;
+    }
+
+    // Callers hold writeLock. Assigns the id and initial version without storing the todo yet.
+    private TodoDto created(Todo todo) {
+        todo.setId(journal.nextId());
+        todo.setVersion(0L);
+        return stored(mapper.toDto(todo));
+    }
+
+    // Callers hold writeLock. Recorded first, so a journal that can no longer write rejects the change
+    // before anyone sees it.
+    private void apply(TodoDto before, TodoDto after) {
+        State next = state.apply(before, after);
+        journal.record(after != null ? after.getId() : before.getId(), after);
+        state = next;
+    }
+
+    // Callers hold writeLock. The whole batch is recorded as one change and published as one state.
+    private void applyAll(List<Change> changes) {
+        if (changes.isEmpty()) {
+            return;
+        }
+        State next = state;
+        Map<Long, TodoDto> states = new LinkedHashMap<>();
+        for (Change change : changes) {
+            next = next.apply(change.before(), change.after());
+            states.put(change.after() != null ? change.after().getId() : change.before().getId(), change.after());
+        }
+        journal.recordAll(states);
+        state = next;
+    }
+
+    private static State replay(State state, long id, TodoDto todo) {
+        TodoDto before = state.get(id);
+        return before == null && todo == null ? state : state.apply(before, todo);
+    }
+
+    private static List<TodoDto> read(PersistentSortedSet<TodoDto>.View range, int limit) {
+        return read(range, 0, limit);
+    }
+
+    private static List<TodoDto> read(PersistentSortedSet<TodoDto>.View range, long skip, int limit) {
+        return range.stream()
+                .skip(skip)
+                .limit(limit)
+                .toList();
+    }
+
+    // Every row of an index with the given completed flag; active todos come first in all of them
+    private static PersistentSortedSet<TodoDto>.View withCompleted(PersistentSortedSet<TodoDto> index,
+                                                                   boolean completed, TodoDto firstCompleted) {
+        return completed ? index.range(firstCompleted, true, null, false) : index.range(null, false, firstCompleted, false);
+    }
+
+    // The range in the requested order, or null when its index is sorted neither that way nor the reverse
+    private static PersistentSortedSet<TodoDto>.View inOrder(PersistentSortedSet<TodoDto>.View range, Sort indexOrder,
+                                                             Sort requested) {
+        if (requested.equals(indexOrder)) {
+            return range;
+        }
+        if (requested.equals(indexOrder.reverse())) {
+            return range.descending();
+        }
+        return null;
+    }
+
+    // An offset page of an index range already in the page's order: skips to the offset instead of sorting
+    private static Slice<TodoDto> slice(PersistentSortedSet<TodoDto>.View range, Pageable pageable) {
+        if (pageable.isUnpaged()) {
+            return new SliceImpl<>(read(range, Integer.MAX_VALUE));
+        }
+        return toSlice(read(range, pageable.getOffset(), pageable.getPageSize() + 1), pageable);
+    }
+
+    // Without an index in the page's order: one pass that keeps only the rows up to the end of the page, in a
+    // heap with the last of them on top, instead of sorting every matching row
+    private static Slice<TodoDto> slice(Stream<TodoDto> rows, Pageable pageable) {
+        Comparator<TodoDto> order = order(pageable.getSort());
+        if (pageable.isUnpaged()) {
+            return new SliceImpl<>(rows.sorted(order).toList());
+        }
+        long end = pageable.getOffset() + pageable.getPageSize() + 1;
+        PriorityQueue<TodoDto> first = new PriorityQueue<>(order.reversed());
+        rows.forEach(todo -> {
+            first.offer(todo);
+            if (first.size() > end) {
+                first.poll();
+            }
+        });
+        List<TodoDto> sorted = new ArrayList<>(first);
+        sorted.sort(order);
+        return toSlice(sorted.subList((int) Math.min(pageable.getOffset(), sorted.size()), sorted.size()), pageable);
+    }
+
+    // Rows are read one past the page size, so the presence of a next page is known without a count
+    private static Slice<TodoDto> toSlice(List<TodoDto> rows, Pageable pageable) {
+        boolean hasNext = rows.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? rows.subList(0, pageable.getPageSize()) : rows, pageable, hasNext);
+    }
+
+    private static Comparator<TodoDto> order(Sort sort) {
+        Comparator<TodoDto> order = (a, b) -> 0;
+        for (Sort.Order property : sort) {
+            Comparator<TodoDto> comparator = SORTABLE.get(property.getProperty());
+            if (comparator == null) {
+                throw new PropertyReferenceException(property.getProperty(), TypeInformation.of(TodoDto.class),
+                        List.of());
+            }
+            order = order.thenComparing(property.isAscending() ? comparator : comparator.reversed());
+        }
+        return order;
+    }
+
+    private void validate(Todo todo) {
+        Set<ConstraintViolation<Todo>> violations = validator.validate(todo);
+        if (!violations.isEmpty()) {
+            throw new ConstraintViolationException(violations);
+        }
+    }
+
+    private static TodoDto idKey(long id) {
+        return new TodoDto(id, null, null, false, null, null, null, null, null);
+    }
+
+    private static TodoDto priorityKey(boolean completed, Priority priority, long id) {
+        return new TodoDto(id, null, null, completed, priority, null, null, null, null);
+    }
+
+    private static TodoDto updatedAtKey(boolean completed, LocalDateTime updatedAt, long id) {
+        return new TodoDto(id, null, null, completed, null, null, updatedAt, null, null);
+    }
+
+    private static TodoDto dueDateKey(boolean completed, LocalDateTime dueDate, long id) {
+        return new TodoDto(id, null, null, completed, null, null, null, dueDate, null);
+    }
+
+    // The todo as the database will return it after a restart: timestamps rounded to TIMESTAMP(6)
+    private static TodoDto stored(TodoDto todo) {
+        return new TodoDto(todo.getId(), todo.getTitle(), todo.getDescription(), todo.isCompleted(),
+                todo.getPriority(), toColumn(todo.getCreatedAt()), toColumn(todo.getUpdatedAt()),
+                toColumn(todo.getDueDate()), todo.getVersion());
+    }
+
+    private static LocalDateTime toColumn(LocalDateTime dateTime) {
+        return dateTime == null ? null : dateTime.plusNanos(500).truncatedTo(ChronoUnit.MICROS);
+    }
+
+    private static Todo toEntity(TodoDto todo) {
+        return Todo.builder()
+                .id(todo.getId())
+                .title(todo.getTitle())
+                .description(todo.getDescription())
+                .completed(todo.isCompleted())
+                .priority(todo.getPriority())
+                .createdAt(todo.getCreatedAt())
+                .updatedAt(todo.getUpdatedAt())
+                .dueDate(todo.getDueDate())
+                .version(todo.getVersion())
+                .build();
+    }
+
+    private static TodoDto toDto(ResultSet rs) throws SQLException {
+        return new TodoDto(rs.getLong("id"), rs.getString("title"), rs.getString("description"),
+                rs.getBoolean("completed"), Priority.valueOf(rs.getString("priority")),
+                rs.getObject("created_at", LocalDateTime.class), rs.getObject("updated_at", LocalDateTime.class),
+                rs.getObject("due_date", LocalDateTime.class), rs.getLong("version"));
+    }
+}
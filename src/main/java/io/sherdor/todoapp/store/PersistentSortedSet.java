@@ -0,0 +1,266 @@
+package io.sherdor.todoapp.store;
+
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * An immutable sorted set. Adding or removing an element returns a new set that shares all but the path to
+ * that element with the old one, so a reader holding a set keeps an unchanging view of it while writers
+ * build the next one. Backed by an AVL tree with path copying: changes cost O(log n) new nodes.
+ * <p>
+ * Elements comparing equal are the same element: {@link #with} replaces one, and {@link #find} looks one up
+ * by a probe that only carries the compared fields.
+ */
+final class PersistentSortedSet<E> implements Iterable<E> {
+    private final Comparator<? super E> comparator;
+    private final Node<E> root;
+
+    private record Node<E>(E value, Node<E> left, Node<E> right, int height, int size) {
+    }
+
+    private PersistentSortedSet(Comparator<? super E> comparator, Node<E> root) {
+        this.comparator = comparator;
+        this.root = root;
+    }
+
+    static <E> PersistentSortedSet<E> empty(Comparator<? super E> comparator) {
+        return new PersistentSortedSet<>(comparator, null);
+    }
+
+    Comparator<? super E> comparator() {
+        return comparator;
+    }
+
+    int size() {
+        return size(root);
+    }
+
+    boolean isEmpty() {
+        return root == null;
+    }
+
+    /** The element comparing equal to {@code probe}, or null. */
+    E find(E probe) {
+        Node<E> node = root;
+        while (node != null) {
+            int c = comparator.compare(probe, node.value);
+            if (c == 0) {
+                return node.value;
+            }
+            node = c < 0 ? node.left : node.right;
+        }
+        return null;
+    }
+
+    /** This set with {@code element} added, in place of the element comparing equal to it if there is one. */
+    PersistentSortedSet<E> with(E element) {
+        return new PersistentSortedSet<>(comparator, insert(root, element));
+    }
+
+    /** This set without the element comparing equal to {@code element}; this set itself when there is none. */
+    PersistentSortedSet<E> without(E element) {
+        Node<E> removed = delete(root, element);
+        return removed == root ? this : new PersistentSortedSet<>(comparator, removed);
+    }
+
+    /** The elements from {@code from} up to {@code to}, ascending; a null bound leaves that end open. */
+    View range(E from, boolean fromInclusive, E to, boolean toInclusive) {
+        return new View(from, fromInclusive, to, toInclusive, false);
+    }
+
+    View all() {
+        return range(null, false, null, false);
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return all().iterator();
+    }
+
+    Stream<E> stream() {
+        return all().stream();
+    }
+
+    /** A range of the set in ascending or descending order; as immutable as the set it was taken from. */
+    final class View implements Iterable<E> {
+        private final E from;
+        private final boolean fromInclusive;
+        private final E to;
+        private final boolean toInclusive;
+        private final boolean descending;
+
+        private View(E from, boolean fromInclusive, E to, boolean toInclusive, boolean descending) {
+            this.from = from;
+            this.fromInclusive = fromInclusive;
+            this.to = to;
+            this.toInclusive = toInclusive;
+            this.descending = descending;
+        }
+
+        Comparator<? super E> comparator() {
+            return comparator;
+        }
+
+        View descending() {
+            return new View(from, fromInclusive, to, toInclusive, !descending);
+        }
+
+        boolean isEmpty() {
+            return !iterator().hasNext();
+        }
+
+        @Override
+        public Iterator<E> iterator() {
+            if (from != null && to != null && comparator.compare(from, to) > 0) {
+                return new Walk(null);
+            }
+            return new Walk(root);
+        }
+
+        Stream<E> stream() {
+            return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator(),
+                    Spliterator.ORDERED | Spliterator.NONNULL | Spliterator.IMMUTABLE), false);
+        }
+
+        private boolean afterStart(E value) {
+            if (descending ? to == null : from == null) {
+                return true;
+            }
+            int c = descending ? comparator.compare(to, value) : comparator.compare(value, from);
+            return c > 0 || c == 0 && (descending ? toInclusive : fromInclusive);
+        }
+
+        private boolean beforeEnd(E value) {
+            if (descending ? from == null : to == null) {
+                return true;
+            }
+            int c = descending ? comparator.compare(value, from) : comparator.compare(to, value);
+            return c > 0 || c == 0 && (descending ? fromInclusive : toInclusive);
+        }
+
+        // In-order walk with a stack of the nodes still to visit, starting at the first one within the range
+        private final class Walk implements Iterator<E> {
+            private final Deque<Node<E>> pending = new ArrayDeque<>();
+
+            Walk(Node<E> node) {
+                while (node != null) {
+                    if (afterStart(node.value)) {
+                        pending.push(node);
+                        node = descending ? node.right : node.left;
+                    } else {
+                        node = descending ? node.left : node.right;
+                    }
+                }
+                if (!pending.isEmpty() && !beforeEnd(pending.peek().value)) {
+                    pending.clear();
+                }
+            }
+
+            @Override
+            public boolean hasNext() {
+                return !pending.isEmpty();
+            }
+
+            @Override
+            public E next() {
+                if (pending.isEmpty()) {
+                    throw new NoSuchElementException();
+                }
+                Node<E> node = pending.pop();
+                for (Node<E> next = descending ? node.left : node.right; next != null;
+                     next = descending ? next.right : next.left) {
+                    pending.push(next);
+                }
+                if (!pending.isEmpty() && !beforeEnd(pending.peek().value)) {
+                    pending.clear();
+                }
+                return node.value;
+            }
+        }
+    }
+
+    private Node<E> insert(Node<E> node, E element) {
+        if (node == null) {
+            return node(element, null, null);
+        }
+        int c = comparator.compare(element, node.value);
+        if (c < 0) {
+            return balance(node.value, insert(node.left, element), node.right);
+        }
+        if (c > 0) {
+            return balance(node.value, node.left, insert(node.right, element));
+        }
+        return new Node<>(element, node.left, node.right, node.height, node.size);
+    }
+
+    private Node<E> delete(Node<E> node, E element) {
+        if (node == null) {
+            return null;
+        }
+        int c = comparator.compare(element, node.value);
+        if (c < 0) {
+            Node<E> left = delete(node.left, element);
+            return left == node.left ? node : balance(node.value, left, node.right);
+        }
+        if (c > 0) {
+            Node<E> right = delete(node.right, element);
+            return right == node.right ? node : balance(node.value, node.left, right);
+        }
+        if (node.left == null) {
+            return node.right;
+        }
+        if (node.right == null) {
+            return node.left;
+        }
+        Node<E> successor = node.right;
+        while (successor.left != null) {
+            successor = successor.left;
+        }
+        return balance(successor.value, node.left, deleteFirst(node.right));
+    }
+
+    private static <E> Node<E> deleteFirst(Node<E> node) {
+        if (node.left == null) {
+            return node.right;
+        }
+        return balance(node.value, deleteFirst(node.left), node.right);
+    }
+
+    // Rebuilds a node whose subtrees differ in height by at most two, rotating them back within one
+    private static <E> Node<E> balance(E value, Node<E> left, Node<E> right) {
+        if (height(left) > height(right) + 1) {
+            if (height(left.left) >= height(left.right)) {
+                return node(left.value, left.left, node(value, left.right, right));
+            }
+            Node<E> middle = left.right;
+            return node(middle.value, node(left.value, left.left, middle.left), node(value, middle.right, right));
+        }
+        if (height(right) > height(left) + 1) {
+            if (height(right.right) >= height(right.left)) {
+                return node(right.value, node(value, left, right.left), right.right);
+            }
+            Node<E> middle = right.left;
+            return node(middle.value, node(value, left, middle.left), node(right.value, middle.right, right.right));
+        }
+        return node(value, left, right);
+    }
+
+    private static <E> Node<E> node(E value, Node<E> left, Node<E> right) {
+        return new Node<>(value, left, right, Math.max(height(left), height(right)) + 1, size(left) + size(right) + 1);
+    }
+
+    private static int height(Node<?> node) {
+        return node == null ? 0 : node.height;
+    }
+
+    private static int size(Node<?> node) {
+        return node == null ? 0 : node.size;
+    }
+}
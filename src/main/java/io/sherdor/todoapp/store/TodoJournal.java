@@ -0,0 +1,54 @@
+package io.sherdor.todoapp.store;
+
+import io.sherdor.todoapp.dto.TodoDto;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * Keeps the todos of the {@link InMemoryTodoStore} durable, selected by {@code todo.store.journal}.
+ * <p>
+ * The store calls {@link #record} while holding its write lock, so changes reach the journal in the order
+ * they were applied, and {@link #await} after releasing it, so that concurrent writers can share one sync.
+ */
+public interface TodoJournal {
+
+    /**
+     * Replays everything saved so far into {@code replay}, oldest first: the id and new state of each todo,
+     * with a null state for a deletion.
+     *
+     * @return false when the journal holds nothing of its own, in which case the store loads the database
+     */
+    boolean recover(BiConsumer<Long, TodoDto> replay);
+
+    /** Allocates the id of a new todo. Called under the store's write lock. */
+    long nextId();
+
+    /**
+     * Records the new state of a todo, or null when it was deleted. Called under the store's write lock.
+     *
+     * @return the position of the change, for {@link #await}
+     */
+    long record(long id, TodoDto todo);
+
+    /**
+     * Records the new states of several todos, by id, as one change: the journal keeps all of them or none,
+     * whether it can no longer write or crashes part-way through. Called under the store's write lock.
+     *
+     * @return the position of the change, for {@link #await}
+     */
+    long recordAll(Map<Long, TodoDto> todos);
+
+    /** Returns once the change at {@code position} is as durable as the journal promises. */
+    void await(long position);
+
+    /** Position of the last change recorded. Called under the store's write lock. */
+    long position();
+
+    /** Saves {@code todos}, the complete state as of {@code position}, for recovery to start from. */
+    void checkpoint(List<TodoDto> todos, long position);
+
+    /** Writes out every change recorded so far. */
+    void flush();
+}
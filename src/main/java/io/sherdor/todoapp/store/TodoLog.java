@@ -0,0 +1,562 @@
+package io.sherdor.todoapp.store;
+
+import io.sherdor.todoapp.dto.TodoDto;
+import io.sherdor.todoapp.enums.FsyncPolicy;
+import io.sherdor.todoapp.store.TodoLogCodec.Entry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static java.nio.channels.FileChannel.MapMode.READ_ONLY;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * Write-ahead log of the in-memory store's changes in a local directory, so the todos survive restarts
+ * without a database.
+ * <p>
+ * Every change is appended as a checksummed record (see {@link TodoLogCodec}) to the current log segment.
+ * Writers only queue their records: a single writer thread takes everything queued, writes it with one
+ * gathering write and, under {@link FsyncPolicy#ALWAYS}, forces it with one fsync, so concurrent writers
+ * share a sync (group commit). A checkpoint writes all todos to a new snapshot, starts a new segment and
+ * deletes the snapshots and segments the new snapshot covers.
+ * <p>
+ * Recovery maps the newest snapshot into memory and replays only the records after it, so startup takes
+ * time in proportion to the number of todos plus the changes since the last checkpoint. A record torn by a
+ * crash ends the last segment and is cut off. Once a write fails the log rejects every further change.
+ */
+@Slf4j
+public class TodoLog implements TodoJournal, AutoCloseable {
+    private static final String SNAPSHOT = "snapshot-";
+    private static final String SNAPSHOT_SUFFIX = ".bin";
+    private static final String SEGMENT = "log-";
+    private static final String SEGMENT_SUFFIX = ".wal";
+    // "TODS", then the format version, position, next id and number of todos
+    private static final int SNAPSHOT_MAGIC = 0x544f4453;
+    private static final int SNAPSHOT_FORMAT = 1;
+    private static final int SNAPSHOT_HEADER = 32;
+    // Files are mapped a window at a time, as a single mapping cannot exceed 2 GB
+    private static final long MAP_WINDOW = 1L << 30;
+
+    private final Path directory;
+    private final FsyncPolicy fsync;
+    private final long fsyncIntervalNanos;
+    private final AtomicLong nextId = new AtomicLong(1);
+
+    private final Lock lock = new ReentrantLock();
+    // Signalled when records are queued, a roll is requested or the log is closing
+    private final Condition work = lock.newCondition();
+    // Signalled after each round of the writer
+    private final Condition progress = lock.newCondition();
+    // The rest is guarded by lock
+    private final ByteBuffer scratch = ByteBuffer.allocate(TodoLogCodec.MAX_RECORD);
+    private List<ByteBuffer> queue = new ArrayList<>();
+    private long queuedSeq;
+    private long writtenSeq;
+    private long syncedSeq;
+    private boolean rollRequested;
+    private long rolls;
+    // Last sequence number in a closed segment
+    private long rolledSeq;
+    private boolean closing;
+    private IOException failure;
+    private Thread writer;
+    // Owned by the writer thread once it runs
+    private FileChannel segment;
+
+    public TodoLog(Path directory, FsyncPolicy fsync, Duration fsyncInterval) {
+        this.directory = directory;
+        this.fsync = fsync;
+        this.fsyncIntervalNanos = fsyncInterval.toNanos();
+    }
+
+    @Override
+    public boolean recover(BiConsumer<Long, TodoDto> replay) {
+        close();
+        try {
+            long start = System.nanoTime();
+            Files.createDirectories(directory);
+            List<Path> snapshots = list(SNAPSHOT, SNAPSHOT_SUFFIX);
+            List<Path> segments = list(SEGMENT, SEGMENT_SUFFIX);
+            Recovery recovery = new Recovery(replay);
+            if (!snapshots.isEmpty()) {
+                readSnapshot(snapshots.getLast(), recovery);
+            }
+            long fromSnapshot = recovery.replayed;
+            FileChannel last = null;
+            for (int i = 0; i < segments.size(); i++) {
+                Path path = segments.get(i);
+                FileChannel channel = FileChannel.open(path, READ, WRITE);
+                long end = scan(channel, 0, recovery::replayLogged);
+                if (end < channel.size()) {
+                    if (i < segments.size() - 1) {
+                        channel.close();
+                        throw new IOException("Corrupt record in " + path + " at offset " + end);
+                    }
+                    log.warn("Cutting off {} bytes of a torn record at the end of {}", channel.size() - end, path);
+                    channel.truncate(end);
+                    channel.force(true);
+                }
+                if (i < segments.size() - 1) {
+                    channel.close();
+                } else {
+                    channel.position(end);
+                    last = channel;
+                }
+            }
+            nextId.accumulateAndGet(recovery.maxId + 1, Math::max);
+            open(recovery.seq, last);
+            log.info("Recovered the todo log at position {} in {} ms: {} todos from the snapshot, {} logged changes",
+                    recovery.seq, (System.nanoTime() - start) / 1_000_000, fromSnapshot,
+                    recovery.replayed - fromSnapshot);
+            return !snapshots.isEmpty() || !segments.isEmpty();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot recover the todo log in " + directory, e);
+        }
+    }
+
+    @Override
+    public long nextId() {
+        return nextId.getAndIncrement();
+    }
+
+    @Override
+    public long record(long id, TodoDto todo) {
+        lock.lock();
+        try {
+            checkWritable();
+            long seq = queuedSeq + 1;
+            queue.add(encode(seq, id, todo));
+            queuedSeq = seq;
+            work.signal();
+            return seq;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // One record for the whole batch, so a crash keeps all of it or none
+    @Override
+    public long recordAll(Map<Long, TodoDto> todos) {
+        lock.lock();
+        try {
+            checkWritable();
+            if (todos.isEmpty()) {
+                return queuedSeq;
+            }
+            long seq = queuedSeq + 1;
+            queue.add(TodoLogCodec.encodeBatch(seq, todos));
+            queuedSeq = seq;
+            work.signal();
+            return seq;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void await(long position) {
+        lock.lock();
+        try {
+            while ((fsync == FsyncPolicy.ALWAYS ? syncedSeq : writtenSeq) < position) {
+                checkWritable();
+                progress.awaitUninterruptibly();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public long position() {
+        lock.lock();
+        try {
+            return queuedSeq;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void checkpoint(List<TodoDto> todos, long position) {
+        try {
+            long start = System.nanoTime();
+            for (TodoDto todo : todos) {
+                nextId.accumulateAndGet(todo.getId() + 1, Math::max);
+            }
+            Path snapshot = directory.resolve(name(SNAPSHOT, position, SNAPSHOT_SUFFIX));
+            writeSnapshot(snapshot, todos, position);
+            long closedSeq = roll();
+            for (Path old : list(SNAPSHOT, SNAPSHOT_SUFFIX)) {
+                if (!old.equals(snapshot)) {
+                    Files.delete(old);
+                }
+            }
+            // A segment ends where the next one starts; the last one ends at the roll, unless it began after it
+            List<Path> segments = list(SEGMENT, SEGMENT_SUFFIX);
+            for (int i = 0; i < segments.size(); i++) {
+                long first = firstSeq(segments.get(i));
+                long lastSeq = i + 1 < segments.size() ? firstSeq(segments.get(i + 1)) - 1
+                        : first > closedSeq ? Long.MAX_VALUE : closedSeq;
+                if (lastSeq <= position) {
+                    Files.delete(segments.get(i));
+                }
+            }
+            log.info("Checkpointed {} todos at log position {} in {} ms", todos.size(), position,
+                    (System.nanoTime() - start) / 1_000_000);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot checkpoint the todo log in " + directory, e);
+        }
+    }
+
+    @Override
+    public void flush() {
+        lock.lock();
+        try {
+            if (writer != null) {
+                long position = queuedSeq;
+                while (writtenSeq < position) {
+                    checkWritable();
+                    progress.awaitUninterruptibly();
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Writes and syncs whatever is queued, then stops the writer thread. */
+    @Override
+    public void close() {
+        Thread thread;
+        lock.lock();
+        try {
+            thread = writer;
+            if (thread == null) {
+                return;
+            }
+            closing = true;
+            work.signal();
+        } finally {
+            lock.unlock();
+        }
+        boolean interrupted = false;
+        while (thread.isAlive()) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        lock.lock();
+        try {
+            writer = null;
+            progress.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void open(long seq, FileChannel last) {
+        lock.lock();
+        try {
+            queue = new ArrayList<>();
+            queuedSeq = writtenSeq = syncedSeq = rolledSeq = seq;
+            rollRequested = closing = false;
+            failure = null;
+            segment = last;
+            writer = Thread.ofPlatform().name("todo-log-writer").daemon().start(this::write);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // The writer thread: one round per batch of queued records
+    private void write() {
+        long lastSync = System.nanoTime();
+        boolean stop = false;
+        while (!stop) {
+            List<ByteBuffer> batch;
+            long upTo;
+            boolean roll;
+            lock.lock();
+            try {
+                while (queue.isEmpty() && !rollRequested && !closing) {
+                    if (fsync != FsyncPolicy.INTERVAL || syncedSeq == writtenSeq) {
+                        work.awaitUninterruptibly();
+                    } else if (work.awaitNanos(fsyncIntervalNanos - (System.nanoTime() - lastSync)) <= 0) {
+                        break;
+                    }
+                }
+                batch = queue;
+                queue = new ArrayList<>();
+                upTo = queuedSeq;
+                roll = rollRequested;
+                rollRequested = false;
+                stop = closing;
+            } catch (InterruptedException e) {
+                fail(new InterruptedIOException("The todo log writer was interrupted"));
+                return;
+            } finally {
+                lock.unlock();
+            }
+            try {
+                if (!batch.isEmpty()) {
+                    if (segment == null) {
+                        // One record, and one sequence number, per queued buffer
+                        segment = openSegment(upTo - batch.size() + 1);
+                    }
+                    ByteBuffer[] buffers = batch.toArray(ByteBuffer[]::new);
+                    while (buffers[buffers.length - 1].hasRemaining()) {
+                        segment.write(buffers);
+                    }
+                }
+                boolean sync = segment != null && (roll || stop
+                        || fsync == FsyncPolicy.ALWAYS && !batch.isEmpty()
+                        || fsync == FsyncPolicy.INTERVAL && System.nanoTime() - lastSync >= fsyncIntervalNanos);
+                if (sync) {
+                    segment.force(false);
+                    lastSync = System.nanoTime();
+                }
+                if ((roll || stop) && segment != null) {
+                    segment.close();
+                    segment = null;
+                }
+                lock.lock();
+                try {
+                    writtenSeq = upTo;
+                    if (sync || segment == null) {
+                        syncedSeq = upTo;
+                    }
+                    if (roll) {
+                        rolledSeq = upTo;
+                        rolls++;
+                    }
+                    progress.signalAll();
+                } finally {
+                    lock.unlock();
+                }
+            } catch (IOException e) {
+                fail(e);
+                return;
+            }
+        }
+    }
+
+    private void fail(IOException e) {
+        log.error("The todo log in {} failed, rejecting further changes", directory, e);
+        lock.lock();
+        try {
+            failure = e;
+            progress.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            if (segment != null) {
+                segment.close();
+            }
+        } catch (IOException suppressed) {
+            e.addSuppressed(suppressed);
+        }
+        segment = null;
+    }
+
+    // Callers hold lock
+    private void checkWritable() {
+        if (failure != null) {
+            throw new UncheckedIOException("The todo log in " + directory + " failed", failure);
+        }
+        if (writer == null) {
+            throw new IllegalStateException("The todo log in " + directory + " is not open");
+        }
+    }
+
+    // Caller holds lock, which guards scratch
+    private ByteBuffer encode(long seq, long id, TodoDto todo) {
+        scratch.clear();
+        TodoLogCodec.encode(scratch, seq, id, todo);
+        return ByteBuffer.allocate(scratch.flip().remaining()).put(scratch).flip();
+    }
+
+    // Has the writer close the current segment; returns the last sequence number in a closed segment
+    private long roll() {
+        lock.lock();
+        try {
+            checkWritable();
+            long target = rolls + 1;
+            rollRequested = true;
+            work.signal();
+            while (rolls < target) {
+                checkWritable();
+                progress.awaitUninterruptibly();
+            }
+            return rolledSeq;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private FileChannel openSegment(long firstSeq) throws IOException {
+        FileChannel channel = FileChannel.open(directory.resolve(name(SEGMENT, firstSeq, SEGMENT_SUFFIX)),
+                CREATE, WRITE);
+        channel.position(channel.size());
+        syncDirectory();
+        return channel;
+    }
+
+    private void writeSnapshot(Path snapshot, List<TodoDto> todos, long position) throws IOException {
+        Path temporary = snapshot.resolveSibling(snapshot.getFileName() + ".tmp");
+        try (FileChannel out = FileChannel.open(temporary, CREATE, WRITE, TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 20);
+            buffer.putInt(SNAPSHOT_MAGIC).putInt(SNAPSHOT_FORMAT)
+                    .putLong(position).putLong(nextId.get()).putLong(todos.size());
+            for (TodoDto todo : todos) {
+                if (buffer.remaining() < TodoLogCodec.MAX_RECORD) {
+                    drain(out, buffer);
+                }
+                TodoLogCodec.encode(buffer, position, todo.getId(), todo);
+            }
+            drain(out, buffer);
+            out.force(true);
+        }
+        Files.move(temporary, snapshot, ATOMIC_MOVE, REPLACE_EXISTING);
+        syncDirectory();
+    }
+
+    private static void drain(FileChannel out, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            out.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    private void readSnapshot(Path snapshot, Recovery recovery) throws IOException {
+        try (FileChannel channel = FileChannel.open(snapshot, READ)) {
+            if (channel.size() < SNAPSHOT_HEADER) {
+                throw new IOException("Truncated snapshot " + snapshot);
+            }
+            MappedByteBuffer header = channel.map(READ_ONLY, 0, SNAPSHOT_HEADER);
+            if (header.getInt() != SNAPSHOT_MAGIC || header.getInt() != SNAPSHOT_FORMAT) {
+                throw new IOException("Not a todo snapshot: " + snapshot);
+            }
+            long position = header.getLong();
+            nextId.accumulateAndGet(header.getLong(), Math::max);
+            long count = header.getLong();
+            long end = scan(channel, SNAPSHOT_HEADER, recovery::replaySnapshot);
+            if (end != channel.size() || recovery.replayed != count) {
+                throw new IOException("Corrupt snapshot " + snapshot + " at offset " + end);
+            }
+            recovery.seq = position;
+        }
+    }
+
+    // Decodes records from offset on; returns the offset where the valid records end
+    private static long scan(FileChannel channel, long offset, Consumer<List<Entry>> consumer) throws IOException {
+        long size = channel.size();
+        while (true) {
+            MappedByteBuffer window = channel.map(READ_ONLY, offset, Math.min(MAP_WINDOW, size - offset));
+            List<Entry> entries;
+            while ((entries = TodoLogCodec.decode(window)) != null) {
+                consumer.accept(entries);
+            }
+            offset += window.position();
+            // A record cut by the end of a window is decoded again at the start of the next one
+            if (window.position() == 0 || offset + window.remaining() == size) {
+                return offset;
+            }
+        }
+    }
+
+    // Makes created and renamed files durable; not every platform can open a directory for it
+    private void syncDirectory() {
+        try (FileChannel channel = FileChannel.open(directory, READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            log.debug("Cannot sync the todo log directory {}", directory, e);
+        }
+    }
+
+    private List<Path> list(String prefix, String suffix) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> {
+                        String name = file.getFileName().toString();
+                        return name.startsWith(prefix) && name.endsWith(suffix);
+                    })
+                    // Zero-padded, so the names sort by sequence number
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private static String name(String prefix, long seq, String suffix) {
+        return prefix + String.format("%020d", seq) + suffix;
+    }
+
+    private static long firstSeq(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name, SEGMENT.length(), name.length() - SEGMENT_SUFFIX.length(), 10);
+    }
+
+    private static class Recovery {
+        private final BiConsumer<Long, TodoDto> replay;
+        private long seq;
+        private long maxId;
+        private long replayed;
+
+        Recovery(BiConsumer<Long, TodoDto> replay) {
+            this.replay = replay;
+        }
+
+        void replaySnapshot(List<Entry> entries) {
+            entries.forEach(this::apply);
+        }
+
+        // A record is one change, however many todos it holds
+        void replayLogged(List<Entry> entries) {
+            long recordSeq = entries.getFirst().seq();
+            if (recordSeq <= seq) {
+                // Already in the snapshot
+                return;
+            }
+            if (recordSeq != seq + 1) {
+                throw new UncheckedIOException(new IOException(
+                        "The todo log skips from position " + seq + " to " + recordSeq));
+            }
+            seq = recordSeq;
+            entries.forEach(this::apply);
+        }
+
+        private void apply(Entry entry) {
+            replay.accept(entry.id(), entry.todo());
+            maxId = Math.max(maxId, entry.id());
+            replayed++;
+        }
+    }
+}
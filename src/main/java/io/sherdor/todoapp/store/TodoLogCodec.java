@@ -0,0 +1,194 @@
+package io.sherdor.todoapp.store;
+
+import io.sherdor.todoapp.dto.TodoDto;
+import io.sherdor.todoapp.enums.Priority;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32C;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Binary record format of the {@link TodoLog}, shared by its log segments and snapshots. A record is
+ * <pre>
+ * int   body length
+ * int   CRC32C of the body
+ * long  sequence number
+ * long  todo id
+ * byte  flags: deleted, completed, and which optional fields follow
+ * then, unless deleted:
+ * long  version
+ * byte  priority ordinal
+ * long  created at, updated at, due date in epoch microseconds (UTC), each only when set
+ * short title length, UTF-8 title
+ * short description length, UTF-8 description, only when set
+ * </pre>
+ * A batch written as one change is a single record with the batch flag, an id of 0, an int count, then for
+ * each todo its id, flags and fields as above. Its checksum covers the whole batch, so recovery replays all
+ * of it or, when a crash tore it, none.
+ * <p>
+ * A record cut short or failing its checksum decodes as null, which marks the end of the valid data.
+ */
+final class TodoLogCodec {
+    // Title and description are limited to 255 and 1000 characters, at most 3 UTF-8 bytes each
+    static final int MAX_RECORD = 8192;
+    static final int HEADER = 8;
+    // Far above a batch of todo.batch.max-size todos, and well within a log window
+    static final int MAX_BATCH_RECORD = 64 << 20;
+
+    private static final int MIN_BODY = 17;
+    private static final int DELETED = 1;
+    private static final int COMPLETED = 1 << 1;
+    private static final int CREATED_AT = 1 << 2;
+    private static final int UPDATED_AT = 1 << 3;
+    private static final int DUE_DATE = 1 << 4;
+    private static final int DESCRIPTION = 1 << 5;
+    private static final int BATCH = 1 << 6;
+
+    record Entry(long seq, long id, TodoDto todo) {
+    }
+
+    private TodoLogCodec() {
+    }
+
+    /** Appends the record of {@code todo}, or of its deletion when null; {@code out} needs MAX_RECORD bytes left. */
+    static void encode(ByteBuffer out, long seq, long id, TodoDto todo) {
+        int start = out.position();
+        out.position(start + HEADER);
+        out.putLong(seq);
+        putTodo(out, id, todo);
+        seal(out, start);
+    }
+
+    /** The single record of a batch of todos, by id, with null for a deletion. */
+    static ByteBuffer encodeBatch(long seq, Map<Long, TodoDto> todos) {
+        ByteBuffer out = ByteBuffer.allocate(Math.min(HEADER + MIN_BODY + 4 + todos.size() * 256, MAX_BATCH_RECORD));
+        out.position(HEADER);
+        out.putLong(seq).putLong(0).put((byte) BATCH).putInt(todos.size());
+        for (Map.Entry<Long, TodoDto> todo : todos.entrySet()) {
+            if (out.remaining() < MAX_RECORD) {
+                if (out.capacity() == MAX_BATCH_RECORD) {
+                    throw new IllegalArgumentException("A batch of " + todos.size() + " todos exceeds one log record");
+                }
+                out = ByteBuffer.allocate((int) Math.min(2L * out.capacity(), MAX_BATCH_RECORD)).put(out.flip());
+            }
+            putTodo(out, todo.getKey(), todo.getValue());
+        }
+        seal(out, 0);
+        return out.flip();
+    }
+
+    private static void putTodo(ByteBuffer out, long id, TodoDto todo) {
+        out.putLong(id);
+        if (todo == null) {
+            out.put((byte) DELETED);
+        } else {
+            byte[] title = todo.getTitle().getBytes(UTF_8);
+            byte[] description = todo.getDescription() == null ? null : todo.getDescription().getBytes(UTF_8);
+            int flags = (todo.isCompleted() ? COMPLETED : 0)
+                    | (todo.getCreatedAt() != null ? CREATED_AT : 0)
+                    | (todo.getUpdatedAt() != null ? UPDATED_AT : 0)
+                    | (todo.getDueDate() != null ? DUE_DATE : 0)
+                    | (description != null ? DESCRIPTION : 0);
+            out.put((byte) flags);
+            out.putLong(todo.getVersion());
+            out.put((byte) todo.getPriority().ordinal());
+            putTime(out, todo.getCreatedAt());
+            putTime(out, todo.getUpdatedAt());
+            putTime(out, todo.getDueDate());
+            putString(out, title);
+            if (description != null) {
+                putString(out, description);
+            }
+        }
+    }
+
+    // Fills in the header of the record starting at start and ending at the position
+    private static void seal(ByteBuffer out, int start) {
+        int end = out.position();
+        CRC32C crc = new CRC32C();
+        crc.update(out.slice(start + HEADER, end - start - HEADER));
+        out.putInt(start, end - start - HEADER).putInt(start + 4, (int) crc.getValue());
+    }
+
+    /**
+     * Decodes the record at the position of {@code in} and moves past it, or returns null and stays put. A
+     * batch decodes as all of its todos, each with the sequence number of the batch.
+     */
+    static List<Entry> decode(ByteBuffer in) {
+        int start = in.position();
+        if (in.remaining() < HEADER) {
+            return null;
+        }
+        int length = in.getInt(start);
+        if (length < MIN_BODY || length > MAX_BATCH_RECORD - HEADER || in.remaining() - HEADER < length) {
+            return null;
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(in.slice(start + HEADER, length));
+        if ((int) crc.getValue() != in.getInt(start + 4)) {
+            return null;
+        }
+        in.position(start + HEADER);
+        long seq = in.getLong();
+        long id = in.getLong();
+        int flags = in.get();
+        List<Entry> entries;
+        if ((flags & BATCH) != 0) {
+            int count = in.getInt();
+            entries = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                long todoId = in.getLong();
+                entries.add(new Entry(seq, todoId, getTodo(in, todoId, in.get())));
+            }
+        } else {
+            entries = List.of(new Entry(seq, id, getTodo(in, id, flags)));
+        }
+        in.position(start + HEADER + length);
+        return entries;
+    }
+
+    private static TodoDto getTodo(ByteBuffer in, long id, int flags) {
+        TodoDto todo = null;
+        if ((flags & DELETED) == 0) {
+            long version = in.getLong();
+            Priority priority = Priority.fromOrdinal(in.get());
+            LocalDateTime createdAt = (flags & CREATED_AT) != 0 ? getTime(in) : null;
+            LocalDateTime updatedAt = (flags & UPDATED_AT) != 0 ? getTime(in) : null;
+            LocalDateTime dueDate = (flags & DUE_DATE) != 0 ? getTime(in) : null;
+            String title = getString(in);
+            String description = (flags & DESCRIPTION) != 0 ? getString(in) : null;
+            todo = new TodoDto(id, title, description, (flags & COMPLETED) != 0, priority,
+                    createdAt, updatedAt, dueDate, version);
+        }
+        return todo;
+    }
+
+    private static void putTime(ByteBuffer out, LocalDateTime time) {
+        if (time != null) {
+            out.putLong(time.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + time.getNano() / 1000);
+        }
+    }
+
+    private static LocalDateTime getTime(ByteBuffer in) {
+        long micros = in.getLong();
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000),
+                (int) Math.floorMod(micros, 1_000_000) * 1000, ZoneOffset.UTC);
+    }
+
+    private static void putString(ByteBuffer out, byte[] bytes) {
+        out.putShort((short) bytes.length).put(bytes);
+    }
+
+    private static String getString(ByteBuffer in) {
+        // Recovery reads mapped files, which have no backing array
+        byte[] bytes = new byte[Short.toUnsignedInt(in.getShort())];
+        in.get(bytes);
+        return new String(bytes, UTF_8);
+    }
+}
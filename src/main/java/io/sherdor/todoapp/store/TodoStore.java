@@ -0,0 +1,109 @@
+package io.sherdor.todoapp.store;
+
+import io.sherdor.todoapp.dto.TodoDto;
+import io.sherdor.todoapp.entity.Todo;
+import io.sherdor.todoapp.enums.Priority;
+import io.sherdor.todoapp.repositories.TodoRepository.DeadlineView;
+import io.sherdor.todoapp.repositories.TodoRepository.PriorityCounts;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Where todos are kept, selected by {@code todo.store.mode}: {@code database} queries the database on every
+ * call, {@code memory} serves everything from an in-process copy and writes changes behind to the database.
+ * <p>
+ * Keyset methods continue strictly after the given position; a {@code null} position starts from the
+ * first row. Unknown ids are skipped rather than reported.
+ */
+public interface TodoStore {
+
+    Optional<TodoDto> findById(long id);
+
+    /** Todos with the given ids, in no particular order. */
+    List<TodoDto> findAllById(Collection<Long> ids);
+
+    Slice<TodoDto> findAllById(Collection<Long> ids, Pageable pageable);
+
+    /** Every todo, by id. */
+    List<TodoDto> findAll();
+
+    Slice<TodoDto> findAll(Pageable pageable);
+
+    /** Todos with an id above {@code afterId}, by id. */
+    List<TodoDto> findAllAfter(long afterId, int limit);
+
+    /** Every todo by id. The stream must be closed, and the database store reads it inside a transaction. */
+    Stream<TodoDto> streamAll();
+
+    long count();
+
+    Slice<TodoDto> findByCompleted(boolean completed, Pageable pageable);
+
+    /** Active todos, highest priority first. */
+    List<TodoDto> findActive();
+
+    /** Active todos after {@code (priority, afterId)}, highest priority first, then by id. */
+    List<TodoDto> findActiveAfter(Priority priority, long afterId, int limit);
+
+    /** Completed todos, most recently updated first; those never updated come last. */
+    List<TodoDto> findCompleted();
+
+    /** Completed todos with an update time, after {@code (updatedAt, beforeId)}, newest first, then by id descending. */
+    List<TodoDto> findCompletedAfter(LocalDateTime updatedAt, long beforeId, int limit);
+
+    /** Completed todos that were never updated, with an id below {@code beforeId}, by id descending. */
+    List<TodoDto> findCompletedNeverUpdated(long beforeId, int limit);
+
+    /** Active todos due before {@code now}. */
+    List<TodoDto> findOverdue(LocalDateTime now);
+
+    Slice<TodoDto> findOverdue(LocalDateTime now, Pageable pageable);
+
+    /** Active todos due before {@code now}, after {@code (dueDate, afterId)}, by due date, then by id. */
+    List<TodoDto> findOverdueAfter(LocalDateTime now, LocalDateTime dueDate, long afterId, int limit);
+
+    /** Active todos due in {@code [from, to)}, by due date, then by id. */
+    List<TodoDto> findDueBetween(LocalDateTime from, LocalDateTime to);
+
+    /** Active todos due in {@code [from, to)}, after {@code (dueDate, afterId)}, by due date, then by id. */
+    List<TodoDto> findDueBetweenAfter(LocalDateTime from, LocalDateTime to, LocalDateTime dueDate, long afterId,
+                                      int limit);
+
+    List<PriorityCounts> countByPriority(LocalDateTime now);
+
+    /** Active todos due at or after {@code now}. */
+    List<DeadlineView> findUpcomingDeadlines(LocalDateTime now);
+
+    /** Saves a new todo and returns it with its generated id and initial version. */
+    TodoDto insert(Todo todo);
+
+    List<TodoDto> insertAll(List<Todo> todos);
+
+    /** Applies {@code change} to the todo and saves it, or returns empty when there is no such todo. */
+    Optional<Change> update(long id, Consumer<Todo> change);
+
+    /** Deletes the todo and returns it as it was. */
+    Optional<TodoDto> delete(long id);
+
+    /**
+     * Sets the completed flag and update time of every todo found whose flag differs, incrementing its version.
+     * A todo already in that state comes back unchanged, as a change whose before and after are the same.
+     */
+    List<Change> setCompleted(Collection<Long> ids, boolean completed, LocalDateTime updatedAt);
+
+    /** Deletes the todos found and returns them as they were. */
+    List<TodoDto> deleteAll(Collection<Long> ids);
+
+    /** Picks up rows written to the database behind the store's back, such as bulk JDBC loads. */
+    void reload();
+
+    record Change(TodoDto before, TodoDto after) {
+    }
+}
@@ -5,9 +5,13 @@ import io.sherdor.todoapp.dto.CreateTodoDto;
 import io.sherdor.todoapp.dto.TodoDto;
 import io.sherdor.todoapp.dto.UpdateTodoDto;
 import io.sherdor.todoapp.enums.Priority;
+import io.sherdor.todoapp.events.TodoChangeBroadcaster;
+import io.sherdor.todoapp.events.TodoChangedEvent;
 import io.sherdor.todoapp.service.TodoService;
 import com.vaadin.flow.component.Component;
 import com.vaadin.flow.component.Key;
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.UIDetachedException;
 import com.vaadin.flow.component.button.Button;
 import com.vaadin.flow.component.button.ButtonVariant;
 import com.vaadin.flow.component.checkbox.Checkbox;
@@ -29,15 +33,32 @@ import com.vaadin.flow.component.textfield.TextArea;
 import com.vaadin.flow.component.textfield.TextField;
 import com.vaadin.flow.data.binder.Binder;
 import com.vaadin.flow.data.binder.ValidationException;
+import com.vaadin.flow.data.provider.QuerySortOrder;
+import com.vaadin.flow.data.value.ValueChangeMode;
 import com.vaadin.flow.router.PageTitle;
 import com.vaadin.flow.router.Route;
+import com.vaadin.flow.shared.Registration;
 import com.vaadin.flow.spring.annotation.SpringComponent;
 import com.vaadin.flow.spring.annotation.UIScope;
+import com.vaadin.flow.spring.data.VaadinSpringDataHelpers;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 @Route("")
 @PageTitle("Todo App")
@@ -45,14 +66,37 @@ import java.util.List;
 @UIScope
 public class TodoMainView extends VerticalLayout {
 
+    private static final int SEARCH_DEBOUNCE_MS = 300;
+    // The properties a view can be filtered or sorted by, read from both sides of a change
+    private static final Map<String, Function<TodoDto, Object>> PROPERTIES = Map.of(
+            "completed", TodoDto::isCompleted,
+            "title", TodoDto::getTitle,
+            "priority", TodoDto::getPriority,
+            "dueDate", TodoDto::getDueDate,
+            "createdAt", TodoDto::getCreatedAt,
+            "updatedAt", TodoDto::getUpdatedAt);
+
     private final TodoService todoService;
+    private final ExecutorService uiTaskExecutor;
+    private final TodoChangeBroadcaster changeBroadcaster;
     private final Grid<TodoDto> grid;
     private final TextField searchField;
     private final Button addButton;
     private final Span statsSpan;
     private final HorizontalLayout statsLayout;
+    private final Span totalStat;
+    private final Span completedStat;
+    private final Span activeStat;
+    private final Span overdueStat;
     private Binder<TodoFormData> binder;
     private TodoDto editingTodo;
+    private Future<?> pendingSearch;
+    private int searchGeneration;
+    // Backing list while search results are shown; null while the grid is lazily loaded
+    private List<TodoDto> searchResults;
+    // What the current list filters on and its default order, besides the grid's sort columns
+    private Set<String> viewProperties = Set.of();
+    private Registration changeRegistration;
 
     // Helper class for form binding since TodoDto is immutable
     public static class TodoFormData {
@@ -80,9 +124,19 @@ public class TodoMainView extends VerticalLayout {
     }
 
     @Autowired
-    public TodoMainView(TodoService todoService) {
+    public TodoMainView(TodoService todoService, @Qualifier("uiTaskExecutor") ExecutorService uiTaskExecutor,
+                        TodoChangeBroadcaster changeBroadcaster) {
         this.todoService = todoService;
+        this.uiTaskExecutor = uiTaskExecutor;
+        this.changeBroadcaster = changeBroadcaster;
         this.statsLayout = new HorizontalLayout();
+        this.totalStat = createStatSpan(() -> showTodos(todoService::getAllTodos, Set.of()));
+        this.completedStat = createStatSpan(
+                () -> showTodos(todoService::getCompletedTodos, Set.of("completed", "updatedAt")));
+        this.activeStat = createStatSpan(
+                () -> showTodos(todoService::getActiveTodos, Set.of("completed", "priority")));
+        this.overdueStat = createStatSpan(
+                () -> showTodos(todoService::getOverdueTodos, Set.of("completed", "dueDate")));
         this.grid = new Grid<>(TodoDto.class, false);
         this.searchField = new TextField();
         this.addButton = new Button("Add Task", new Icon(VaadinIcon.PLUS));
@@ -101,12 +155,32 @@ public class TodoMainView extends VerticalLayout {
     private void setupComponents() {
         searchField.setPlaceholder("Search tasks...");
         searchField.setPrefixComponent(new Icon(VaadinIcon.SEARCH));
+        searchField.setValueChangeMode(ValueChangeMode.LAZY);
+        searchField.setValueChangeTimeout(SEARCH_DEBOUNCE_MS);
         searchField.addValueChangeListener(e -> {
             String searchTerm = e.getValue();
+            cancelPendingSearch();
             if (searchTerm == null || searchTerm.trim().isEmpty()) {
                 refreshGrid();
             } else {
-                grid.setItems(todoService.searchTodos(searchTerm));
+                startSearch(searchTerm);
+            }
+        });
+        addAttachListener(e -> {
+            UI ui = e.getUI();
+            changeRegistration = changeBroadcaster.register(changes -> {
+                try {
+                    ui.access(() -> applyChanges(changes));
+                } catch (UIDetachedException ignored) {
+                    // The UI went away between the change and its delivery
+                }
+            });
+        });
+        addDetachListener(e -> {
+            cancelPendingSearch();
+            if (changeRegistration != null) {
+                changeRegistration.remove();
+                changeRegistration = null;
             }
         });
 
@@ -119,15 +193,18 @@ public class TodoMainView extends VerticalLayout {
     private void setupGrid() {
         grid.addColumn(todo -> todo.isCompleted() ? "✓" : "✗")
                 .setHeader("Status")
+                .setSortProperty("completed")
                 .setWidth("80px")
                 .setFlexGrow(0);
 
         grid.addColumn(TodoDto::getTitle)
                 .setHeader("Title")
+                .setSortProperty("title")
                 .setFlexGrow(1);
 
         grid.addColumn(todo -> todo.getPriority().getDisplayName())
                 .setHeader("Priority")
+                .setSortProperty("priority")
                 .setWidth("120px");
 
         grid.addComponentColumn(todo -> {
@@ -141,10 +218,11 @@ public class TodoMainView extends VerticalLayout {
             }
 
             return dueDateSpan;
-        }).setHeader("Due Date").setWidth("150px");
+        }).setHeader("Due Date").setSortProperty("dueDate").setWidth("150px");
 
         grid.addColumn(todo -> todo.getCreatedAt().format(DateTimeFormatter.ofPattern("dd.MM.yyyy HH:mm")))
                 .setHeader("Created")
+                .setSortProperty("createdAt")
                 .setWidth("150px");
 
         grid.addComponentColumn(this::createActionButtons)
@@ -175,8 +253,6 @@ public class TodoMainView extends VerticalLayout {
             statusButton.setText("Undo");
             statusButton.addClickListener(e -> {
                 todoService.toggleCompleted(todo.getId(), false);
-                refreshGrid();
-                updateStats();
                 showSuccessNotification("Task returned to active");
             });
         } else {
@@ -185,8 +261,6 @@ public class TodoMainView extends VerticalLayout {
             statusButton.addThemeVariants(ButtonVariant.LUMO_SUCCESS);
             statusButton.addClickListener(e -> {
                 todoService.toggleCompleted(todo.getId(), true);
-                refreshGrid();
-                updateStats();
                 showSuccessNotification("Task completed!");
             });
         }
@@ -217,7 +291,12 @@ public class TodoMainView extends VerticalLayout {
 
         toolbar.add(leftSection, rightSection);
 
-        updateStats();
+        statsLayout.add(totalStat, completedStat, activeStat, overdueStat);
+        statsLayout.setSpacing(true);
+        statsLayout.getStyle()
+                .set("font-size", "14px")
+                .set("color", "var(--lumo-secondary-text-color)")
+                .set("flex-wrap", "wrap");
         add(title, statsLayout, toolbar, grid);
 
         getElement().getStyle().set("--lumo-font-family", "Arial, sans-serif");
@@ -321,8 +400,6 @@ public class TodoMainView extends VerticalLayout {
                     showSuccessNotification("Task updated successfully!");
                 }
 
-                refreshGrid();
-                updateStats();
                 dialog.close();
 
             } catch (ValidationException ex) {
@@ -357,8 +434,6 @@ public class TodoMainView extends VerticalLayout {
         deleteButton.addClickListener(e -> {
             try {
                 todoService.deleteTodo(todo.getId());
-                refreshGrid();
-                updateStats();
                 showSuccessNotification("Task deleted successfully");
                 confirmDialog.close();
             } catch (Exception ex) {
@@ -381,41 +456,146 @@ public class TodoMainView extends VerticalLayout {
 
     private void refreshGrid() {
         try {
-            List<TodoDto> todos = todoService.getAllTodos();
-            grid.setItems(todos);
+            showTodos(todoService::getAllTodos, Set.of());
         } catch (Exception ex) {
             showErrorNotification("Failed to load tasks: " + ex.getMessage());
         }
     }
 
-    private void updateStats() {
-        statsLayout.removeAll();
+    // Runs outside the session lock; only the newest search may write its results back into the grid
+    private void startSearch(String searchTerm) {
+        cancelPendingSearch();
+        UI ui = UI.getCurrent();
+        int generation = searchGeneration;
+        try {
+            pendingSearch = uiTaskExecutor.submit(() -> {
+                try {
+                    List<TodoDto> results = todoService.searchTodos(searchTerm);
+                    ui.access(() -> {
+                        if (generation == searchGeneration) {
+                            searchResults = new ArrayList<>(results);
+                            viewProperties = Set.of();
+                            grid.setItems(searchResults).setIdentifierProvider(TodoDto::getId);
+                            pendingSearch = null;
+                        }
+                    });
+                } catch (Exception ex) {
+                    if (!Thread.currentThread().isInterrupted()) {
+                        ui.access(() -> showErrorNotification("Search failed: " + ex.getMessage()));
+                    }
+                }
+            });
+        } catch (RejectedExecutionException ex) {
+            showErrorNotification("Search is busy, please try again");
+        }
+    }
+
+    private void cancelPendingSearch() {
+        searchGeneration++;
+        if (pendingSearch != null) {
+            pendingSearch.cancel(true);
+            // A search still queued gives its slot back now rather than when a worker reaches it
+            if (uiTaskExecutor instanceof ThreadPoolExecutor pool && pendingSearch instanceof Runnable queued) {
+                pool.remove(queued);
+            }
+            pendingSearch = null;
+        }
+    }
+
+    // The grid pulls only the rows in its viewport, with column sorting pushed down to the query
+    private void showTodos(Function<Pageable, Slice<TodoDto>> source, Set<String> filteredAndOrderedBy) {
+        cancelPendingSearch();
+        searchResults = null;
+        viewProperties = filteredAndOrderedBy;
+        grid.setItems(query -> source.apply(VaadinSpringDataHelpers.toSpringPageRequest(query)).stream())
+                .setIdentifierProvider(TodoDto::getId);
+    }
+
+    private void applyChanges(List<TodoChangedEvent> changes) {
+        if (changes.size() == 1) {
+            applyChange(changes.get(0));
+            return;
+        }
+        // A batch write: one stats read and one refresh rather than one per row
+        updateStats();
+        if (searchResults != null) {
+            changes.forEach(this::replaceInSearchResults);
+        }
+        grid.getDataProvider().refreshAll();
+    }
+
+    // Applies a change from any session without re-reading the table: lazy views only re-fetch their viewport
+    private void applyChange(TodoChangedEvent event) {
+        updateStats();
+        if (searchResults != null) {
+            applyToSearchResults(event);
+            return;
+        }
+        switch (event.getType()) {
+            case CREATED, DELETED -> grid.getDataProvider().refreshAll();
+            case UPDATED, TOGGLED -> refreshChanged(event);
+        }
+    }
+
+    // A row whose filter or sort key changed may leave the view or move, which only a re-fetch shows
+    private void refreshChanged(TodoChangedEvent event) {
+        if (movesRow(event)) {
+            grid.getDataProvider().refreshAll();
+        } else {
+            grid.getDataProvider().refreshItem(event.getAfter());
+        }
+    }
+
+    private boolean movesRow(TodoChangedEvent event) {
+        Stream<String> sortColumns = grid.getSortOrder().stream()
+                .flatMap(order -> order.getSorted().getSortOrder(order.getDirection()))
+                .map(QuerySortOrder::getSorted);
+        return Stream.concat(viewProperties.stream(), sortColumns)
+                .map(PROPERTIES::get)
+                .anyMatch(property -> !Objects.equals(property.apply(event.getBefore()),
+                        property.apply(event.getAfter())));
+    }
 
+    private void applyToSearchResults(TodoChangedEvent event) {
+        if (!replaceInSearchResults(event)) {
+            return;
+        }
+        if (event.getAfter() == null) {
+            grid.getDataProvider().refreshAll();
+        } else {
+            refreshChanged(event);
+        }
+    }
+
+    // Returns whether the changed todo was among the results
+    private boolean replaceInSearchResults(TodoChangedEvent event) {
+        for (int i = 0; i < searchResults.size(); i++) {
+            if (searchResults.get(i).getId().equals(event.getTodoId())) {
+                if (event.getAfter() == null) {
+                    searchResults.remove(i);
+                } else {
+                    searchResults.set(i, event.getAfter());
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void updateStats() {
         try {
             TodoStats stats = todoService.getStats();
-
-            Span total = createStatSpan("📊 Total: " + stats.getTotalTodos(),
-                    () -> grid.setItems(todoService.getAllTodos()));
-            Span completed = createStatSpan("✅ Completed: " + stats.getCompletedTodos(),
-                    () -> grid.setItems(todoService.getCompletedTodos()));
-            Span active = createStatSpan("⏳ Active: " + stats.getActiveTodos(),
-                    () -> grid.setItems(todoService.getActiveTodos()));
-            Span overdue = createStatSpan("⚠️ Overdue: " + stats.getOverdueTodos(),
-                    () -> grid.setItems(todoService.getOverdueTodos()));
-
-            statsLayout.add(total, completed, active, overdue);
-            statsLayout.setSpacing(true);
-            statsLayout.getStyle()
-                    .set("font-size", "14px")
-                    .set("color", "var(--lumo-secondary-text-color)")
-                    .set("flex-wrap", "wrap");
+            totalStat.setText("📊 Total: " + stats.getTotalTodos());
+            completedStat.setText("✅ Completed: " + stats.getCompletedTodos());
+            activeStat.setText("⏳ Active: " + stats.getActiveTodos());
+            overdueStat.setText("⚠️ Overdue: " + stats.getOverdueTodos());
         } catch (Exception ex) {
             showErrorNotification("Failed to load statistics: " + ex.getMessage());
         }
     }
 
-    private Span createStatSpan(String text, Runnable onClick) {
-        Span span = new Span(text);
+    private Span createStatSpan(Runnable onClick) {
+        Span span = new Span();
         span.getStyle()
                 .set("cursor", "pointer")
                 .set("margin-right", "15px")
@@ -0,0 +1,38 @@
+package io.sherdor.todoapp.view;
+
+import com.vaadin.flow.server.ServiceInitEvent;
+import com.vaadin.flow.server.VaadinServiceInitListener;
+import com.vaadin.flow.spring.annotation.SpringComponent;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Open Vaadin sessions and attached UIs (browser tabs), as the {@code vaadin.sessions} and {@code vaadin.uis}
+ * gauges.
+ */
+@SpringComponent
+public class VaadinSessionMetrics implements VaadinServiceInitListener {
+    private final AtomicInteger sessions = new AtomicInteger();
+    private final AtomicInteger uis = new AtomicInteger();
+
+    public VaadinSessionMetrics(MeterRegistry registry) {
+        Gauge.builder("vaadin.sessions", sessions, AtomicInteger::get)
+                .description("Open Vaadin sessions")
+                .register(registry);
+        Gauge.builder("vaadin.uis", uis, AtomicInteger::get)
+                .description("Attached Vaadin UIs")
+                .register(registry);
+    }
+
+    @Override
+    public void serviceInit(ServiceInitEvent event) {
+        event.getSource().addSessionInitListener(init -> sessions.incrementAndGet());
+        event.getSource().addSessionDestroyListener(destroy -> sessions.decrementAndGet());
+        event.getSource().addUIInitListener(init -> {
+            uis.incrementAndGet();
+            init.getUI().addDetachListener(detach -> uis.decrementAndGet());
+        });
+    }
+}
@@ -0,0 +1,15 @@
+-- Baseline: the schema Hibernate used to generate with ddl-auto=update
+CREATE SEQUENCE IF NOT EXISTS todos_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS todos (
+    id          BIGINT        NOT NULL,
+    title       VARCHAR(255)  NOT NULL,
+    description VARCHAR(1000),
+    completed   BOOLEAN       NOT NULL,
+    -- Declared in Priority ordinal order, which is also the sort order of an H2 ENUM
+    priority    ENUM ('LOW', 'MEDIUM', 'HIGH', 'URGENT') NOT NULL,
+    created_at  TIMESTAMP(6),
+    updated_at  TIMESTAMP(6),
+    due_date    TIMESTAMP(6),
+    CONSTRAINT pk_todos PRIMARY KEY (id)
+);
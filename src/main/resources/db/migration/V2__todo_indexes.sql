@@ -0,0 +1,13 @@
+-- Every finder filters on completed first, then seeks and orders on one column with id as the tie-breaker
+
+-- Active list, ordered by priority (findByCompletedFalseOrderByPriority..., findActiveAfter)
+CREATE INDEX idx_todos_completed_priority ON todos (completed, priority, id);
+
+-- Completed list, newest first (findByCompletedTrueOrderByUpdatedAtDesc, findCompletedAfter)
+CREATE INDEX idx_todos_completed_updated_at ON todos (completed, updated_at, id);
+
+-- Overdue, today and upcoming deadlines (findByOverdueTodos, findTodoForDate, findDueBetweenAfter, ...)
+CREATE INDEX idx_todos_completed_due_date ON todos (completed, due_date, id);
+
+-- Per-priority stats are answered from the index alone, without reading the rows
+CREATE INDEX idx_todos_priority_completed_due_date ON todos (priority, completed, due_date);
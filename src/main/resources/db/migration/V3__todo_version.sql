@@ -0,0 +1,2 @@
+-- Optimistic-locking version of each todo (Todo.version), also served as its ETag
+ALTER TABLE todos ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
@@ -0,0 +1,56 @@
+package io.sherdor.todoapp.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class TodoControllerBadRequestTests {
+    private static final String PROBE = "<script>alert(1)</script>";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void invalidCursorIsRejectedWithoutEchoingIt() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/todos/active").param("limit", "10").param("cursor", PROBE))
+                .andExpect(status().isBadRequest())
+                .andReturn();
+
+        assertThat(result.getResponse().getContentAsString()).doesNotContain(PROBE);
+        assertThat(result.getResponse().getErrorMessage()).isEqualTo("Invalid cursor");
+    }
+
+    @Test
+    void unsupportedFormatIsRejectedWithoutEchoingIt() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/todos/export").param("format", PROBE))
+                .andExpect(status().isBadRequest())
+                .andReturn();
+
+        assertThat(result.getResponse().getContentAsString()).doesNotContain(PROBE);
+        assertThat(result.getResponse().getErrorMessage()).doesNotContain(PROBE);
+    }
+
+    @Test
+    void csvImportWithoutTheRequiredColumnsIsRejected() throws Exception {
+        mockMvc.perform(post("/api/todos/import").param("format", "csv").content("title,description\nA,B\n"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void unknownPriorityOnUpdateIsRejected() throws Exception {
+        mockMvc.perform(put("/api/todos/1").contentType(MediaType.APPLICATION_JSON).content("{\"priority\":7}"))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,76 @@
+package io.sherdor.todoapp.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import io.sherdor.todoapp.config.CborConfig;
+import io.sherdor.todoapp.dto.CreateTodoDto;
+import io.sherdor.todoapp.dto.TodoDto;
+import io.sherdor.todoapp.enums.Priority;
+import io.sherdor.todoapp.service.TodoService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class TodoControllerCborTests {
+    private static final MediaType CBOR = MediaType.parseMediaType("application/cbor");
+
+    private final ObjectMapper cbor = Jackson2ObjectMapperBuilder.json()
+            .factory(new CBORFactory())
+            .postConfigurer(mapper -> mapper.registerModule(CborConfig.compactModule()))
+            .build();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TodoService service;
+
+    @Test
+    void todoIsSentWithEpochTimestampsAndPriorityOrdinals() throws Exception {
+        LocalDateTime dueDate = LocalDateTime.of(2030, 1, 15, 9, 30);
+        var todo = service.createTodo(new CreateTodoDto("Binary", null, Priority.URGENT.ordinal(), dueDate));
+
+        byte[] body = mockMvc.perform(get("/api/todos/" + todo.getId()).accept(CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        JsonNode tree = cbor.readTree(body);
+        assertThat(tree.get("priority").intValue()).isEqualTo(Priority.URGENT.ordinal());
+        assertThat(tree.get("dueDate").longValue())
+                .isEqualTo(dueDate.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+        TodoDto decoded = cbor.readValue(body, TodoDto.class);
+        assertThat(decoded.getCreatedAt()).isEqualTo(todo.getCreatedAt().truncatedTo(ChronoUnit.MILLIS));
+        assertThat(decoded.getPriority()).isEqualTo(Priority.URGENT);
+        assertThat(decoded.getDueDate()).isEqualTo(dueDate);
+    }
+
+    @Test
+    void cborBodiesAreAcceptedAndJsonStaysTheDefault() throws Exception {
+        byte[] request = cbor.writeValueAsBytes(new CreateTodoDto("Posted as CBOR", "binary body", 2, null));
+
+        mockMvc.perform(post("/api/todos").contentType(CBOR).content(request))
+                .andExpect(status().isCreated())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.priority").value("HIGH"))
+                .andExpect(jsonPath("$.description").value("binary body"));
+    }
+}
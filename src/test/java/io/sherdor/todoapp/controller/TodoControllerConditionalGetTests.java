@@ -0,0 +1,98 @@
+package io.sherdor.todoapp.controller;
+
+import io.sherdor.todoapp.dto.CreateTodoDto;
+import io.sherdor.todoapp.dto.UpdateTodoDto;
+import io.sherdor.todoapp.monitoring.SqlScope;
+import io.sherdor.todoapp.service.TodoService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasItem;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class TodoControllerConditionalGetTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TodoService service;
+
+    @Test
+    void unchangedListIsNotModifiedWithoutQueries() throws Exception {
+        String etag = etag("/api/todos/active");
+
+        try (SqlScope scope = SqlScope.open("test")) {
+            mockMvc.perform(get("/api/todos/active").header(HttpHeaders.IF_NONE_MATCH, etag))
+                    .andExpect(status().isNotModified())
+                    .andExpect(content().string(""));
+            assertThat(scope.getStatements()).isZero();
+        }
+
+        service.createTodo(new CreateTodoDto("Changes the list", null, 2, null));
+        mockMvc.perform(get("/api/todos/active").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk());
+        assertThat(etag("/api/todos/active")).isNotEqualTo(etag);
+    }
+
+    @Test
+    void secondWriteWithinASecondIsNotHiddenFromIfModifiedSince() throws Exception {
+        service.createTodo(new CreateTodoDto("First write", null, 2, null));
+        service.createTodo(new CreateTodoDto("Second write", null, 2, null));
+        // A client holding a date from the same second as both writes
+        HttpHeaders conditional = new HttpHeaders();
+        conditional.setIfModifiedSince(System.currentTimeMillis());
+
+        mockMvc.perform(get("/api/todos/active").headers(conditional))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].title", hasItem("Second write")));
+    }
+
+    @Test
+    void todoIsTaggedWithItsVersion() throws Exception {
+        var todo = service.createTodo(new CreateTodoDto("Versioned", null, 1, null));
+        String path = "/api/todos/" + todo.getId();
+        String etag = etag(path);
+
+        mockMvc.perform(get(path).header(HttpHeaders.IF_NONE_MATCH, etag)).andExpect(status().isNotModified());
+
+        service.updateTodo(todo.getId(), new UpdateTodoDto("Versioned again", null, null, null, null));
+        mockMvc.perform(get(path).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "W/\"" + (todo.getVersion() + 1) + "\""));
+    }
+
+    @Test
+    void statsAreNotModifiedUntilAWrite() throws Exception {
+        String etag = etag("/api/todos/stats");
+
+        mockMvc.perform(get("/api/todos/stats").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        var todo = service.createTodo(new CreateTodoDto("Counted", null, 0, null));
+        service.toggleCompleted(List.of(todo.getId()), true);
+        mockMvc.perform(get("/api/todos/stats").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk());
+    }
+
+    private String etag(String path) throws Exception {
+        String etag = mockMvc.perform(get(path))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(etag).isNotBlank();
+        return etag;
+    }
+}
@@ -0,0 +1,65 @@
+package io.sherdor.todoapp.controller;
+
+import io.sherdor.todoapp.monitoring.SqlScope;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Statement budgets for the read endpoints, measured with every cache cold.
+ */
+@SpringBootTest(properties = "todo.sql.enabled=true")
+@AutoConfigureMockMvc
+class TodoControllerSqlBudgetTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @BeforeEach
+    void evictCaches() {
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+    }
+
+    @Test
+    void statsAreServedWithoutQueries() throws Exception {
+        assertThat(statements(get("/api/todos/stats"))).isLessThanOrEqualTo(1);
+    }
+
+    @Test
+    void listsAndPagesIssueOneQuery() throws Exception {
+        assertThat(statements(get("/api/todos"))).isEqualTo(1);
+        assertThat(statements(get("/api/todos/active").param("limit", "2"))).isEqualTo(1);
+        assertThat(statements(get("/api/todos/overdue"))).isEqualTo(1);
+        assertThat(statements(get("/api/todos/search").param("search", "report"))).isLessThanOrEqualTo(1);
+    }
+
+    @Test
+    void singleTodoIsOneQuery() throws Exception {
+        assertThat(statements(get("/api/todos/1"))).isEqualTo(1);
+    }
+
+    private int statements(RequestBuilder request) throws Exception {
+        try (SqlScope scope = SqlScope.open("test")) {
+            mockMvc.perform(request).andExpect(status().isOk());
+            return scope.getStatements();
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package io.sherdor.todoapp.events;
+
+import io.sherdor.todoapp.dto.CreateTodoDto;
+import io.sherdor.todoapp.dto.TodoDto;
+import io.sherdor.todoapp.service.TodoService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.codec.ServerSentEvent;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {"todo.changes.buffer-size=4", "todo.changes.reset-window=PT0.5S"})
+class TodoChangeFeedTests {
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+    private static final Duration RESET_WINDOW = Duration.ofMillis(500);
+
+    @Autowired
+    private TodoChangeFeed feed;
+
+    @Autowired
+    private TodoService service;
+
+    @Test
+    void liveChangesCarryIncreasingSequenceNumbers() {
+        CompletableFuture<List<ServerSentEvent<Object>>> events = feed.subscribe(null)
+                .filter(event -> event.id() != null)
+                .take(2)
+                .collectList()
+                .toFuture();
+
+        TodoDto created = service.createTodo(new CreateTodoDto("Feed", null, 1, null));
+        service.deleteTodo(created.getId());
+
+        List<ServerSentEvent<Object>> received = events.orTimeout(TIMEOUT.toSeconds(), TimeUnit.SECONDS).join();
+        assertThat(received).extracting(ServerSentEvent::event).containsExactly("created", "deleted");
+        assertThat(received).extracting(event -> ((TodoDto) event.data()).getId()).containsOnly(created.getId());
+        assertThat(sequence(received.get(1).id())).isEqualTo(sequence(received.get(0).id()) + 1);
+    }
+
+    @Test
+    void resumingReplaysTheMissedChanges() {
+        String seen = feed.getLastEventId();
+        TodoDto created = service.createTodo(new CreateTodoDto("Missed", null, 1, null));
+        service.toggleCompleted(created.getId(), true);
+
+        List<ServerSentEvent<Object>> replayed = feed.subscribe(seen).take(2).collectList().block(TIMEOUT);
+
+        assertThat(replayed).extracting(event -> sequence(event.id()))
+                .containsExactly(sequence(seen) + 1, sequence(seen) + 2);
+        assertThat(replayed).extracting(ServerSentEvent::event).containsExactly("created", "toggled");
+    }
+
+    @Test
+    void batchWritesAreOneReset() {
+        String seen = feed.getLastEventId();
+        service.createTodos(List.of(
+                new CreateTodoDto("Batch 1", null, 0, null),
+                new CreateTodoDto("Batch 2", null, 0, null),
+                new CreateTodoDto("Batch 3", null, 0, null)));
+
+        // Live or replayed, depending on whether an earlier reset held this one back
+        List<ServerSentEvent<Object>> received = feed.subscribe(seen).take(1).collectList().block(TIMEOUT);
+
+        assertThat(sequence(feed.getLastEventId())).isEqualTo(sequence(seen) + 1);
+        assertThat(received).extracting(ServerSentEvent::event).containsExactly(TodoChangeFeed.RESET);
+        assertThat(received).extracting(ServerSentEvent::id).containsExactly(feed.getLastEventId());
+    }
+
+    @Test
+    void batchesInQuickSuccessionShareResets() {
+        String seen = feed.getLastEventId();
+        for (int i = 0; i < 10; i++) {
+            service.createTodos(List.of(new CreateTodoDto("Chunk " + i, null, 0, null)));
+        }
+
+        // At most one right away and one for the rest once the window is over
+        List<ServerSentEvent<Object>> received = feed.subscribe(seen)
+                .filter(event -> event.id() != null)
+                .take(RESET_WINDOW.multipliedBy(3))
+                .collectList()
+                .block(TIMEOUT);
+
+        assertThat(received).hasSizeBetween(1, 2)
+                .extracting(ServerSentEvent::event).containsOnly(TodoChangeFeed.RESET);
+    }
+
+    @Test
+    void resumingPastTheBufferAsksForAReset() {
+        String seen = feed.getLastEventId();
+        for (int i = 0; i < 5; i++) {
+            service.createTodo(new CreateTodoDto("Overflow " + i, null, 0, null));
+        }
+
+        ServerSentEvent<Object> first = feed.subscribe(seen).blockFirst(TIMEOUT);
+
+        assertThat(first.event()).isEqualTo(TodoChangeFeed.RESET);
+        assertThat(first.id()).isEqualTo(feed.getLastEventId());
+    }
+
+    @Test
+    void resumingAfterARestartAsksForAReset() {
+        service.createTodo(new CreateTodoDto("Before restart", null, 0, null));
+        // Same sequence number, issued by an earlier run of the server
+        String lastRun = "0-" + sequence(feed.getLastEventId());
+
+        ServerSentEvent<Object> first = feed.subscribe(lastRun).blockFirst(TIMEOUT);
+
+        assertThat(first.event()).isEqualTo(TodoChangeFeed.RESET);
+        assertThat(first.id()).isEqualTo(feed.getLastEventId());
+    }
+
+    private static long sequence(String eventId) {
+        return Long.parseLong(eventId.substring(eventId.indexOf('-') + 1));
+    }
+}
@@ -0,0 +1,143 @@
+package io.sherdor.todoapp.repositories;
+
+import io.sherdor.todoapp.enums.Priority;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.reflect.Method;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs every {@link TodoRepository} query, captures the SQL Hibernate sends and checks H2's EXPLAIN
+ * output for a full table scan.
+ */
+@SpringBootTest
+class TodoRepositoryQueryPlanTests {
+    // A leading-wildcard LIKE cannot use a B-tree index; these are what the in-memory search engine replaces
+    private static final Set<String> SCAN_ALLOWED = Set.of("searchIds");
+
+    private static final List<String> statements = new CopyOnWriteArrayList<>();
+
+    @TestConfiguration
+    static class RecordingConfig {
+        @Bean
+        HibernatePropertiesCustomizer recordStatements() {
+            return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, (StatementInspector) sql -> {
+                statements.add(sql);
+                return sql;
+            });
+        }
+    }
+
+    @Autowired
+    private TodoRepository repository;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private TransactionTemplate transaction;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @BeforeEach
+    void evictCaches() {
+        // A cached result would hide the statement
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+    }
+
+    @Test
+    void noRepositoryQueryScansTheWholeTable() {
+        LocalDateTime now = LocalDateTime.now();
+        Limit limit = Limit.of(10);
+        var page = PageRequest.of(0, 10, Sort.by("id"));
+        List<Long> ids = List.of(1L, 2L);
+
+        Map<String, Consumer<TodoRepository>> queries = new LinkedHashMap<>();
+        queries.put("findByCompletedFalseOrderByPriorityDescCompletedDesc", r -> r.findByCompletedFalseOrderByPriorityDescCompletedDesc());
+        queries.put("findByCompletedTrueOrderByUpdatedAtDesc", r -> r.findByCompletedTrueOrderByUpdatedAtDesc());
+        queries.put("findAllByOrderByIdAsc", r -> r.findAllByOrderByIdAsc());
+        queries.put("findAllBy", r -> r.findAllBy(page));
+        queries.put("findByCompleted", r -> r.findByCompleted(false, PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "priority").and(Sort.by("id")))));
+        queries.put("findByIdIn", r -> {
+            r.findByIdIn(ids);
+            r.findByIdIn(ids, page);
+        });
+        queries.put("searchIds", r -> r.searchIds("report", 0L, limit));
+        queries.put("findByOverdueTodos", r -> {
+            r.findByOverdueTodos(now);
+            r.findByOverdueTodos(now, PageRequest.of(0, 10, Sort.by("dueDate").and(Sort.by("id"))));
+        });
+        queries.put("findTodoForDate", r -> r.findTodoForDate(now.toLocalDate().atStartOfDay(), now.toLocalDate().plusDays(1).atStartOfDay()));
+        queries.put("findByIdGreaterThanOrderByIdAsc", r -> r.findByIdGreaterThanOrderByIdAsc(0L, limit));
+        queries.put("findByCompletedFalseOrderByPriorityDescIdAsc", r -> r.findByCompletedFalseOrderByPriorityDescIdAsc(limit));
+        queries.put("findActiveAfter", r -> r.findActiveAfter(Priority.HIGH, 1L, limit));
+        queries.put("findByCompletedTrueAndUpdatedAtNotNullOrderByUpdatedAtDescIdDesc", r -> r.findByCompletedTrueAndUpdatedAtNotNullOrderByUpdatedAtDescIdDesc(limit));
+        queries.put("findCompletedAfter", r -> r.findCompletedAfter(now, 100L, limit));
+        queries.put("findByCompletedTrueAndUpdatedAtNullAndIdLessThanOrderByIdDesc", r -> r.findByCompletedTrueAndUpdatedAtNullAndIdLessThanOrderByIdDesc(100L, limit));
+        queries.put("findByCompletedFalseAndDueDateBeforeOrderByDueDateAscIdAsc", r -> r.findByCompletedFalseAndDueDateBeforeOrderByDueDateAscIdAsc(now, limit));
+        queries.put("findOverdueAfter", r -> r.findOverdueAfter(now, now.minusDays(1), 1L, limit));
+        queries.put("findDueBetweenAfter", r -> r.findDueBetweenAfter(now, now.plusDays(1), now, 0L, limit));
+        queries.put("countByPriority", r -> r.countByPriority(now));
+        queries.put("findUpcomingDeadlines", r -> r.findUpcomingDeadlines(now));
+        queries.put("lockByIdIn", r -> r.lockByIdIn(ids));
+        queries.put("bulkUpdateCompleted", r -> r.bulkUpdateCompleted(List.of(-1L), true, now));
+        queries.put("bulkDelete", r -> r.bulkDelete(List.of(-1L)));
+        queries.put("streamAll", r -> {
+            try (var todos = r.streamAll()) {
+                todos.limit(1).forEach(todo -> { });
+            }
+        });
+        queries.put("countByCompletedTrue", r -> r.countByCompletedTrue());
+        queries.put("countByCompletedFalse", r -> r.countByCompletedFalse());
+
+        Set<String> declared = Arrays.stream(TodoRepository.class.getDeclaredMethods())
+                .map(Method::getName)
+                .collect(Collectors.toSet());
+        assertThat(queries.keySet()).as("every repository query is checked").containsExactlyInAnyOrderElementsOf(declared);
+
+        List<String> scans = new ArrayList<>();
+        queries.forEach((name, query) -> {
+            statements.clear();
+            transaction.executeWithoutResult(status -> {
+                query.accept(repository);
+                status.setRollbackOnly();
+            });
+            assertThat(statements).as("%s issues SQL", name).isNotEmpty();
+            for (String sql : statements) {
+                String plan = jdbc.queryForObject("EXPLAIN " + sql, String.class);
+                if (plan.toLowerCase(Locale.ROOT).contains(".tablescan") && !SCAN_ALLOWED.contains(name)) {
+                    scans.add(name + ":\n" + plan);
+                }
+            }
+        });
+        assertThat(scans).as("queries falling back to a table scan").isEmpty();
+    }
+}
@@ -0,0 +1,133 @@
+package io.sherdor.todoapp.search;
+
+import io.sherdor.todoapp.dto.TodoDto;
+import io.sherdor.todoapp.enums.Priority;
+import io.sherdor.todoapp.events.TodoChangedEvent;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InMemoryTodoSearchEngineTests {
+    // Events alone keep the index in sync; the store is only read by a rebuild
+    private final InMemoryTodoSearchEngine engine = new InMemoryTodoSearchEngine(null);
+
+    @Test
+    void foldsCase() {
+        add(1, "Write REPORT", null);
+
+        assertThat(engine.search("report", 10)).containsExactly(1L);
+        assertThat(engine.search("Report", 10)).containsExactly(1L);
+        assertThat(engine.search("WRITE report", 10)).containsExactly(1L);
+    }
+
+    @Test
+    void matchesInsideWords() {
+        add(1, "Write report", "Monthly figures");
+        add(2, "Buy groceries", null);
+
+        assertThat(engine.search("port", 10)).containsExactly(1L);
+        assertThat(engine.search("ep", 10)).containsExactly(1L);
+        assertThat(engine.search("onthl", 10)).containsExactly(1L);
+        assertThat(engine.search("report groceries", 10)).isEmpty();
+    }
+
+    @Test
+    void ranksExactAbovePrefixAboveInfixAndTitleAboveDescription() {
+        add(1, "Misreport", null);
+        add(2, "Reports", null);
+        add(3, "Report", null);
+        add(4, "Other", "report");
+        add(5, "Other", "reports");
+
+        // exact title 6, prefix title 4, exact description 3, infix title 2, prefix description 2
+        assertThat(engine.search("report", 10)).containsExactly(3L, 2L, 4L, 1L, 5L);
+    }
+
+    @Test
+    void keepsTheBestMatchesUpToTheLimit() {
+        add(1, "Task", "task");
+        add(2, "Tasks", null);
+        add(3, "Task", null);
+        add(4, "Other", "task");
+
+        assertThat(engine.search("task", 2)).containsExactly(1L, 3L);
+        assertThat(engine.search("task", 0)).isEmpty();
+    }
+
+    @Test
+    void pagesAfterTheLastHit() {
+        for (long id = 1; id <= 5; id++) {
+            add(id, (id % 2 == 0 ? "Task " : "Tasks ") + id, null);
+        }
+        List<TodoSearchEngine.Hit> first = engine.searchAfter("task", null, 2);
+        List<TodoSearchEngine.Hit> second = engine.searchAfter("task", first.get(1), 2);
+        List<TodoSearchEngine.Hit> third = engine.searchAfter("task", second.get(1), 2);
+
+        assertThat(first).extracting(TodoSearchEngine.Hit::id).containsExactly(2L, 4L);
+        assertThat(second).extracting(TodoSearchEngine.Hit::id).containsExactly(1L, 3L);
+        assertThat(third).extracting(TodoSearchEngine.Hit::id).containsExactly(5L);
+    }
+
+    @Test
+    void followsUpdatesAndDeletes() {
+        TodoDto original = add(1, "Call doctor", null);
+        TodoDto renamed = todo(1, 1, "Call dentist", null);
+        engine.onTodoChanged(TodoChangedEvent.updated(original, renamed));
+
+        assertThat(engine.search("doctor", 10)).isEmpty();
+        assertThat(engine.search("dentist", 10)).containsExactly(1L);
+
+        engine.onTodoChanged(TodoChangedEvent.deleted(renamed));
+
+        assertThat(engine.search("dentist", 10)).isEmpty();
+        assertThat(engine.search("call", 10)).isEmpty();
+    }
+
+    @Test
+    void ignoresChangesThatArriveAfterANewerOne() {
+        TodoDto original = add(1, "Call doctor", null);
+        TodoDto renamed = todo(1, 1, "Call dentist", null);
+        TodoDto renamedAgain = todo(1, 2, "Call plumber", null);
+
+        // Listeners on two request threads, the later commit's running first
+        engine.onTodoChanged(TodoChangedEvent.updated(renamed, renamedAgain));
+        engine.onTodoChanged(TodoChangedEvent.updated(original, renamed));
+
+        assertThat(engine.search("plumber", 10)).containsExactly(1L);
+        assertThat(engine.search("dentist", 10)).isEmpty();
+
+        engine.onTodoChanged(TodoChangedEvent.deleted(renamedAgain));
+        engine.onTodoChanged(TodoChangedEvent.updated(renamed, renamedAgain));
+
+        assertThat(engine.search("plumber", 10)).isEmpty();
+        assertThat(engine.search("call", 10)).isEmpty();
+    }
+
+    @Test
+    void findsOneAndTwoCharacterFragmentsThroughTheGramIndex() {
+        add(1, "Pay 42 invoices", null);
+        add(2, "Buy milk", null);
+
+        assertThat(engine.search("4", 10)).containsExactly(1L);
+        assertThat(engine.search("lk", 10)).containsExactly(2L);
+        assertThat(engine.search("y", 10)).containsExactlyInAnyOrder(1L, 2L);
+
+        engine.onTodoChanged(TodoChangedEvent.deleted(todo(2, 0, "Buy milk", null)));
+
+        assertThat(engine.search("lk", 10)).isEmpty();
+        assertThat(engine.search("y", 10)).containsExactly(1L);
+    }
+
+    private TodoDto add(long id, String title, String description) {
+        TodoDto todo = todo(id, 0, title, description);
+        engine.onTodoChanged(TodoChangedEvent.created(todo));
+        return todo;
+    }
+
+    private static TodoDto todo(long id, long version, String title, String description) {
+        return new TodoDto(id, title, description, false, Priority.MEDIUM, LocalDateTime.now(), null, null, version);
+    }
+}
@@ -0,0 +1,62 @@
+package io.sherdor.todoapp.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.sherdor.todoapp.dto.TodoDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// A page size of 2 makes every stream span several keyset pages
+@SpringBootTest(properties = "todo.reactive.page-size=2")
+class ReactiveTodoServiceTests {
+
+    @Autowired
+    private ReactiveTodoService reactiveService;
+
+    @Autowired
+    private TodoService service;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @Test
+    void streamsMatchTheBlockingLists() {
+        assertThat(ids(reactiveService.getAllTodos())).containsExactlyElementsOf(ids(service.getAllTodos()));
+        assertThat(ids(reactiveService.getActiveTodos()))
+                .containsExactlyInAnyOrderElementsOf(ids(service.getActiveTodos()));
+        assertThat(ids(reactiveService.getCompletedTodos()))
+                .containsExactlyElementsOf(ids(service.getCompletedTodos()));
+        assertThat(ids(reactiveService.getOverdueTodos()))
+                .containsExactlyInAnyOrderElementsOf(ids(service.getOverdueTodos()));
+    }
+
+    @Test
+    void pagesAreFetchedOnDemand() {
+        List<Long> expected = ids(service.getAllTodos()).subList(0, 2);
+        double pagesBefore = pageQueries();
+
+        List<TodoDto> firstPage = reactiveService.getAllTodos().take(2, true).collectList().block(Duration.ofSeconds(10));
+
+        assertThat(ids(firstPage)).containsExactlyElementsOf(expected);
+        assertThat(pageQueries() - pagesBefore).isEqualTo(1);
+    }
+
+    private double pageQueries() {
+        var timer = registry.find("todo.service").tag("method", "getAllTodos").timer();
+        return timer == null ? 0 : timer.count();
+    }
+
+    private static List<Long> ids(Flux<TodoDto> todos) {
+        return ids(todos.collectList().block(Duration.ofSeconds(10)));
+    }
+
+    private static List<Long> ids(List<TodoDto> todos) {
+        return todos.stream().map(TodoDto::getId).toList();
+    }
+}
@@ -0,0 +1,93 @@
+package io.sherdor.todoapp.service;
+
+import io.sherdor.todoapp.dto.ImportReport;
+import io.sherdor.todoapp.dto.TodoDto;
+import io.sherdor.todoapp.enums.DataFormat;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+// Rolled back, so the re-imported copies never reach the other tests
+@SpringBootTest
+@Transactional
+class TodoImporterTests {
+
+    @Autowired
+    private TodoExporter exporter;
+
+    @Autowired
+    private TodoImporter importer;
+
+    @Autowired
+    private TodoService service;
+
+    @Test
+    void ndjsonExportImportsBackUnchanged() throws Exception {
+        List<TodoDto> existing = service.getAllTodos();
+        Set<Long> existingIds = existing.stream().map(TodoDto::getId).collect(Collectors.toSet());
+        ByteArrayOutputStream export = new ByteArrayOutputStream();
+        long exported = exporter.export(DataFormat.NDJSON, export);
+
+        ImportReport report = importer.importTodos(DataFormat.NDJSON, new ByteArrayInputStream(export.toByteArray()));
+
+        assertThat(report.getErrors()).isEmpty();
+        assertThat(report.getRowsImported()).isEqualTo(exported).isPositive();
+        List<TodoDto> imported = service.getAllTodos().stream()
+                .filter(todo -> !existingIds.contains(todo.getId()))
+                .toList();
+        assertThat(imported).extracting(TodoDto::getTitle, TodoDto::getDescription, TodoDto::getPriority,
+                        TodoDto::getDueDate)
+                .containsExactlyInAnyOrderElementsOf(existing.stream()
+                        // The export writes due dates to the minute
+                        .map(todo -> tuple(todo.getTitle(), todo.getDescription(), todo.getPriority(),
+                                todo.getDueDate() == null ? null : todo.getDueDate().truncatedTo(ChronoUnit.MINUTES)))
+                        .toList());
+    }
+
+    @Test
+    void unterminatedCsvQuoteEndsTheImportWithAReport() throws Exception {
+        String csv = "title,priority\nFirst,1\nSecond,2\n\"Never closed,3\nLost,1\n";
+
+        ImportReport report = importer.importTodos(DataFormat.CSV,
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+
+        assertThat(report.getRowsImported()).isEqualTo(2);
+        assertThat(report.getRowsRejected()).isEqualTo(1);
+        assertThat(report.getErrors()).extracting(ImportReport.RowError::getLine).containsExactly(4L);
+        assertThat(report.getErrors().get(0).getMessage()).contains("Unterminated quoted field");
+    }
+
+    @Test
+    void overlongLinesAreRejectedWithoutBufferingThem() throws Exception {
+        String huge = "x".repeat(200_000);
+        String ndjson = "{\"title\":\"First\",\"priority\":1}\n"
+                + "{\"title\":\"" + huge + "\",\"priority\":1}\n"
+                + "{\"title\":\"Third\",\"priority\":2}\n";
+
+        ImportReport report = importer.importTodos(DataFormat.NDJSON,
+                new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)));
+
+        assertThat(report.getRowsImported()).isEqualTo(2);
+        assertThat(report.getErrors()).extracting(ImportReport.RowError::getLine).containsExactly(2L);
+        assertThat(report.getErrors().get(0).getMessage()).contains("longer than");
+
+        String csv = "title,priority\nFirst,1\n" + huge + ",1\nLost,2\n";
+        report = importer.importTodos(DataFormat.CSV, new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+
+        assertThat(report.getRowsImported()).isEqualTo(1);
+        assertThat(report.getErrors()).extracting(ImportReport.RowError::getLine).containsExactly(3L);
+        assertThat(report.getErrors().get(0).getMessage()).contains("longer than");
+    }
+}
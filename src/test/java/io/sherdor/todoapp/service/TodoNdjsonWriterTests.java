@@ -0,0 +1,39 @@
+package io.sherdor.todoapp.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.sherdor.todoapp.dto.TodoDto;
+import io.sherdor.todoapp.enums.Priority;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.StringWriter;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TodoNdjsonWriterTests {
+
+    @Test
+    void rowsMatchJacksonsSerializer() throws Exception {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        LocalDateTime createdAt = LocalDateTime.of(2025, 3, 7, 8, 5, 59);
+        List<TodoDto> todos = List.of(
+                new TodoDto(1L, "Plain", null, false, Priority.LOW, createdAt, null, null, 0L),
+                new TodoDto(2L, "Quotes \"and\" commas, tabs\t", "Ünïcødé\nand a line break", true,
+                        Priority.URGENT, createdAt, createdAt.plusDays(1), LocalDateTime.of(1999, 12, 31, 23, 59), 3L),
+                new TodoDto(3L, "Far future", "", false, Priority.MEDIUM, createdAt, null,
+                        LocalDateTime.of(12025, 1, 1, 0, 0), 1L));
+
+        StringWriter out = new StringWriter();
+        TodoNdjsonWriter writer = new TodoNdjsonWriter(objectMapper.getFactory(), out);
+        StringBuilder expected = new StringBuilder();
+        for (TodoDto todo : todos) {
+            writer.write(todo);
+            expected.append(objectMapper.writeValueAsString(todo)).append('\n');
+        }
+        writer.flush();
+
+        assertThat(out.toString()).isEqualTo(expected.toString());
+    }
+}
@@ -0,0 +1,54 @@
+package io.sherdor.todoapp.service;
+
+import io.sherdor.todoapp.config.CacheConfig;
+import io.sherdor.todoapp.dto.CreateTodoDto;
+import io.sherdor.todoapp.dto.TodoDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class TodoServiceCacheTests {
+
+    @Autowired
+    private TodoService service;
+
+    @Autowired
+    private TodoVersions versions;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Test
+    void listLoadedBeforeACommitIsNotServedAfterIt() {
+        long changes = versions.getChanges();
+        List<TodoDto> stale = service.getActiveTodos();
+        TodoDto created = service.createTodo(new CreateTodoDto("Cached", null, 1, null));
+        try {
+            // A reader that queried before the commit, putting its result after the eviction
+            cacheManager.getCache(CacheConfig.ACTIVE_TODOS).put(changes, stale);
+
+            assertThat(service.getActiveTodos()).extracting(TodoDto::getId).contains(created.getId());
+        } finally {
+            service.deleteTodo(created.getId());
+        }
+    }
+
+    @Test
+    void singleTodoIsReloadedAfterAnUpdate() {
+        TodoDto created = service.createTodo(new CreateTodoDto("Cached", null, 1, null));
+        try {
+            assertThat(service.getById(created.getId()).isCompleted()).isFalse();
+            service.toggleCompleted(created.getId(), true);
+
+            assertThat(service.getById(created.getId()).isCompleted()).isTrue();
+        } finally {
+            service.deleteTodo(created.getId());
+        }
+    }
+}
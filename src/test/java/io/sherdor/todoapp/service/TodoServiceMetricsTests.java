@@ -0,0 +1,55 @@
+package io.sherdor.todoapp.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class TodoServiceMetricsTests {
+
+    @Autowired
+    private TodoService service;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @Test
+    void serviceCallsAreTimedWithTheirRowCounts() {
+        int rows = service.getOverdueTodos().size();
+
+        Timer timer = registry.find("todo.service").tag("method", "getOverdueTodos").timer();
+        assertThat(timer).isNotNull();
+        assertThat(timer.count()).isPositive();
+        assertThat(registry.find(TodoServiceMetrics.ROWS).tag("method", "getOverdueTodos").summary())
+                .isNotNull()
+                .satisfies(summary -> assertThat(summary.max()).isGreaterThanOrEqualTo(rows));
+    }
+
+    @Test
+    void overloadsGetTheirOwnRowSummary() {
+        service.getAllTodos();
+        service.getAllTodos(10, null);
+
+        assertThat(registry.find(TodoServiceMetrics.ROWS).tag("method", "getAllTodos").summaries())
+                .extracting(summary -> summary.getId().getTag("signature"))
+                .contains("getAllTodos()", "getAllTodos(int,String)");
+        assertThat(registry.find("todo.service").tag("method", "getAllTodos").timers())
+                .extracting(timer -> timer.getId().getTag("signature"))
+                .contains("getAllTodos()", "getAllTodos(int,String)");
+    }
+
+    @Test
+    void repositoryQueriesAreTimed() {
+        service.getAllTodos(10, null);
+
+        assertThat(registry.find("spring.data.repository.invocations")
+                .tag("repository", "TodoRepository")
+                .tag("method", "findByIdGreaterThanOrderByIdAsc")
+                .timer())
+                .isNotNull();
+    }
+}
@@ -0,0 +1,65 @@
+package io.sherdor.todoapp.service;
+
+import io.sherdor.todoapp.dto.CursorPage;
+import io.sherdor.todoapp.dto.TodoDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class TodoServicePaginationTests {
+
+    @Autowired
+    private TodoService service;
+
+    @Test
+    void cursorPagesWalkTheSameRowsAsTheUnboundedList() {
+        assertThat(ids(walk(cursor -> service.getActiveTodos(2, cursor))))
+                .containsExactlyInAnyOrderElementsOf(ids(service.getActiveTodos()));
+        assertThat(ids(walk(cursor -> service.getCompletedTodos(1, cursor))))
+                .containsExactlyElementsOf(ids(service.getCompletedTodos()));
+        assertThat(ids(walk(cursor -> service.getAllTodos(3, cursor))))
+                .containsExactlyInAnyOrderElementsOf(ids(service.getAllTodos()));
+        assertThat(ids(walk(cursor -> service.getOverdueTodos(1, cursor))))
+                .containsExactlyInAnyOrderElementsOf(ids(service.getOverdueTodos()));
+    }
+
+    @Test
+    void searchPagesWalkTheRankedResults() {
+        assertThat(ids(walk(cursor -> service.searchTodos("e", 2, cursor))))
+                .containsExactlyElementsOf(ids(service.searchTodos("e")))
+                .hasSizeGreaterThan(2);
+    }
+
+    @Test
+    void malformedCursorIsRejected() {
+        assertThatThrownBy(() -> service.getActiveTodos(10, "not-a-cursor"))
+                .isInstanceOf(InvalidCursorException.class);
+        assertThatThrownBy(() -> service.searchTodos("e", 10, TodoCursor.encode(null, 3)))
+                .isInstanceOf(InvalidCursorException.class);
+        assertThatThrownBy(() -> service.searchTodos("e", 10, TodoCursor.encode("99999999999", 3)))
+                .isInstanceOf(InvalidCursorException.class);
+    }
+
+    private static List<TodoDto> walk(Function<String, CursorPage<TodoDto>> fetch) {
+        List<TodoDto> all = new ArrayList<>();
+        String cursor = null;
+        do {
+            CursorPage<TodoDto> page = fetch.apply(cursor);
+            all.addAll(page.getItems());
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        return all;
+    }
+
+    private static List<Long> ids(List<TodoDto> todos) {
+        return todos.stream().map(TodoDto::getId).toList();
+    }
+}
@@ -0,0 +1,83 @@
+package io.sherdor.todoapp.service;
+
+import io.sherdor.todoapp.dto.TodoDto;
+import io.sherdor.todoapp.enums.Priority;
+import io.sherdor.todoapp.events.TodoChangedEvent;
+import io.sherdor.todoapp.repositories.TodoRepository.PriorityCounts;
+import io.sherdor.todoapp.store.TodoStore;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TodoStatsTrackerTests {
+
+    @Test
+    void writeDuringAReseedNeitherWaitsNorIsCountedTwice() throws Exception {
+        TodoStore store = mock(TodoStore.class);
+        var reading = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        var reads = new AtomicInteger();
+        when(store.findUpcomingDeadlines(any())).thenReturn(List.of());
+        when(store.countByPriority(any())).thenAnswer(invocation -> {
+            if (reads.getAndIncrement() == 0) {
+                reading.countDown();
+                release.await();
+            }
+            // The write below has committed by the time the store is read
+            return List.of(counts(Priority.HIGH, 2));
+        });
+        var tracker = new TodoStatsTracker(store);
+
+        var reseed = CompletableFuture.runAsync(tracker::reseed);
+        assertThat(reading.await(5, TimeUnit.SECONDS)).isTrue();
+        // Returns while the re-seed is still reading the store
+        tracker.write(() -> {
+            tracker.onTodoChanged(TodoChangedEvent.created(todo(2L)));
+            return null;
+        });
+        release.countDown();
+        reseed.get(5, TimeUnit.SECONDS);
+
+        assertThat(reads.get()).isEqualTo(2);
+        assertThat(tracker.getStats().getTotalTodos()).isEqualTo(2);
+    }
+
+    private static TodoDto todo(long id) {
+        LocalDateTime now = LocalDateTime.now();
+        return new TodoDto(id, "Todo " + id, null, false, Priority.HIGH, now, now, null, 0L);
+    }
+
+    private static PriorityCounts counts(Priority priority, long total) {
+        return new PriorityCounts() {
+            @Override
+            public Priority getPriority() {
+                return priority;
+            }
+
+            @Override
+            public long getTotal() {
+                return total;
+            }
+
+            @Override
+            public long getCompleted() {
+                return 0;
+            }
+
+            @Override
+            public long getOverdue() {
+                return 0;
+            }
+        };
+    }
+}
@@ -0,0 +1,59 @@
+package io.sherdor.todoapp.store;
+
+import io.sherdor.todoapp.dto.CreateTodoDto;
+import io.sherdor.todoapp.dto.TodoDto;
+import io.sherdor.todoapp.service.TodoService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class DatabaseTodoStoreTests {
+
+    @Autowired
+    private DatabaseTodoStore store;
+
+    @Autowired
+    private TodoService service;
+
+    @Test
+    void overlappingCompletionsOfOneTodoChangeItOnce() throws Exception {
+        TodoDto todo = service.createTodo(new CreateTodoDto("Raced", null, 1, null));
+        int writers = 4;
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<List<TodoStore.Change>>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(writers)) {
+            for (int i = 0; i < writers; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return store.setCompleted(List.of(todo.getId(), todo.getId()), true, LocalDateTime.now());
+                }));
+            }
+            start.countDown();
+            List<TodoStore.Change> changes = new ArrayList<>();
+            for (Future<List<TodoStore.Change>> result : results) {
+                changes.addAll(result.get());
+            }
+
+            assertThat(changes).filteredOn(change -> change.before() != change.after()).singleElement()
+                    .satisfies(change -> {
+                        assertThat(change.before().isCompleted()).isFalse();
+                        assertThat(change.after().getVersion()).isEqualTo(todo.getVersion() + 1);
+                    });
+            assertThat(store.findById(todo.getId())).get()
+                    .satisfies(stored -> assertThat(stored.getVersion()).isEqualTo(todo.getVersion() + 1));
+        } finally {
+            service.deleteTodo(todo.getId());
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package io.sherdor.todoapp.store;
+
+import io.sherdor.todoapp.dto.CreateTodoDto;
+import io.sherdor.todoapp.dto.TodoDto;
+import io.sherdor.todoapp.dto.UpdateTodoDto;
+import io.sherdor.todoapp.enums.Priority;
+import io.sherdor.todoapp.mappers.TodoMapper;
+import io.sherdor.todoapp.repositories.TodoRepository;
+import io.sherdor.todoapp.service.TodoService;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest(properties = {
+        "todo.store.mode=memory",
+        "todo.store.flush-interval=PT1H",
+        "spring.datasource.url=jdbc:h2:mem:memory-store-tests"
+})
+class InMemoryTodoStoreTests {
+
+    @Autowired
+    private InMemoryTodoStore store;
+
+    @Autowired
+    private TodoService service;
+
+    @Autowired
+    private TodoRepository repository;
+
+    @Autowired
+    private TodoMapper mapper;
+
+    @Autowired
+    private Validator validator;
+
+    private DatabaseTodoStore database;
+
+    @BeforeEach
+    void setUp() {
+        database = new DatabaseTodoStore(repository, mapper);
+        LocalDateTime now = LocalDateTime.now();
+        var created = service.createTodos(List.of(
+                new CreateTodoDto("Due today", null, Priority.HIGH.ordinal(), LocalDate.now().atTime(23, 59)),
+                new CreateTodoDto("Overdue", "late", Priority.LOW.ordinal(), now.minusHours(1)),
+                new CreateTodoDto("Someday", null, Priority.URGENT.ordinal(), null)));
+        service.updateTodo(created.get(0).getId(), new UpdateTodoDto("Due today, edited", null, null, null, null));
+        service.toggleCompleted(created.get(2).getId(), true);
+        service.deleteTodo(created.get(1).getId());
+    }
+
+    @Test
+    void everyQueryMatchesTheDatabaseAfterAFlush() {
+        assertThat(repository.count()).isNotEqualTo(store.count());
+        store.flush();
+
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime today = LocalDate.now().atStartOfDay();
+        assertThat(store.findAll()).containsExactlyElementsOf(database.findAll());
+        assertThat(store.findActiveAfter(null, 0L, 100)).containsExactlyElementsOf(database.findActiveAfter(null, 0L, 100));
+        assertThat(store.findCompletedAfter(null, Long.MAX_VALUE, 100))
+                .containsExactlyElementsOf(database.findCompletedAfter(null, Long.MAX_VALUE, 100));
+        assertThat(store.findCompletedNeverUpdated(Long.MAX_VALUE, 100))
+                .containsExactlyElementsOf(database.findCompletedNeverUpdated(Long.MAX_VALUE, 100));
+        assertThat(store.findOverdueAfter(now, null, 0L, 100))
+                .containsExactlyElementsOf(database.findOverdueAfter(now, null, 0L, 100));
+        assertThat(store.findDueBetween(today, today.plusDays(1)))
+                .containsExactlyElementsOf(database.findDueBetween(today, today.plusDays(1)));
+        assertThat(counts(store.countByPriority(now))).isEqualTo(counts(database.countByPriority(now)));
+
+        var byTitle = PageRequest.of(1, 2, Sort.by("title").and(Sort.by("id")));
+        assertThat(store.findByCompleted(false, byTitle).getContent())
+                .containsExactlyElementsOf(database.findByCompleted(false, byTitle).getContent());
+    }
+
+    @Test
+    void offsetPagesWalkedAlongAnIndexMatchTheDatabase() {
+        service.createTodos(List.of(
+                new CreateTodoDto("Extra 1", null, Priority.LOW.ordinal(), LocalDateTime.now().minusDays(2)),
+                new CreateTodoDto("Extra 2", null, Priority.LOW.ordinal(), LocalDateTime.now().minusDays(1)),
+                new CreateTodoDto("Extra 3", null, Priority.MEDIUM.ordinal(), null)));
+        store.flush();
+
+        LocalDateTime now = LocalDateTime.now();
+        Sort byPriority = Sort.by(Sort.Direction.DESC, "priority").and(Sort.by("id"));
+        Sort byUpdatedAt = Sort.by(Sort.Direction.DESC, "updatedAt", "id");
+        Sort byDueDate = Sort.by("dueDate", "id");
+        for (int page = 0; page < 3; page++) {
+            for (Sort sort : List.of(byPriority, byPriority.reverse(), byUpdatedAt, byUpdatedAt.reverse())) {
+                for (boolean completed : List.of(false, true)) {
+                    var request = PageRequest.of(page, 2, sort);
+                    assertThat(store.findByCompleted(completed, request))
+                            .containsExactlyElementsOf(database.findByCompleted(completed, request));
+                }
+            }
+            for (Sort sort : List.of(byDueDate, byDueDate.reverse())) {
+                var request = PageRequest.of(page, 1, sort);
+                assertThat(store.findOverdue(now, request)).containsExactlyElementsOf(database.findOverdue(now, request));
+            }
+            for (Sort sort : List.of(Sort.by("id"), Sort.by(Sort.Direction.DESC, "id"))) {
+                var request = PageRequest.of(page, 2, sort);
+                assertThat(store.findAll(request)).containsExactlyElementsOf(database.findAll(request));
+            }
+        }
+    }
+
+    @Test
+    void readersSeeABatchWholeOrNotAtAll() throws Exception {
+        int batch = 5;
+        long before = store.count();
+        long activeBefore = store.findActive().size();
+        Thread writer = Thread.ofPlatform().start(() -> {
+            for (int i = 0; i < 50; i++) {
+                List<CreateTodoDto> todos = new ArrayList<>();
+                for (int j = 0; j < batch; j++) {
+                    todos.add(new CreateTodoDto("Batch " + i + "." + j, null, Priority.LOW.ordinal(), null));
+                }
+                service.createTodos(todos);
+            }
+        });
+        try {
+            while (writer.isAlive()) {
+                assertThat((store.findActive().size() - activeBefore) % batch).isZero();
+                assertThat((store.findAll().size() - before) % batch).isZero();
+            }
+        } finally {
+            writer.join();
+        }
+        assertThat(store.count()).isEqualTo(before + 50 * batch);
+    }
+
+    @Test
+    void batchRejectedByTheJournalLeavesNoRowBehind() {
+        TodoJournal failing = mock(TodoJournal.class);
+        when(failing.recordAll(any())).thenThrow(new IllegalStateException("The todo log is not open"));
+        var isolated = new InMemoryTodoStore(null, failing, mapper, validator);
+
+        assertThatThrownBy(() -> isolated.insertAll(List.of(
+                mapper.toEntity(new CreateTodoDto("One", null, 1, null)),
+                mapper.toEntity(new CreateTodoDto("Two", null, 1, null)))))
+                .isInstanceOf(IllegalStateException.class);
+        assertThat(isolated.count()).isZero();
+        assertThat(isolated.findActive()).isEmpty();
+    }
+
+    @Test
+    void reloadRecoversFlushedWritesAndKeepsAllocatingFreshIds() {
+        TodoDto created = service.createTodo(new CreateTodoDto("Survives a restart", null, 1, null));
+        TodoDto toggled = service.toggleCompleted(created.getId(), true);
+
+        // Flushes first, then rebuilds everything from the database as on startup
+        store.reload();
+
+        assertThat(store.findById(created.getId())).contains(toggled);
+        assertThat(toggled.getVersion()).isEqualTo(1L);
+        assertThat(service.createTodo(new CreateTodoDto("After the restart", null, 1, null)).getId())
+                .isGreaterThan(created.getId());
+    }
+
+    private static Map<Priority, List<Long>> counts(List<TodoRepository.PriorityCounts> rows) {
+        return rows.stream().collect(Collectors.toMap(TodoRepository.PriorityCounts::getPriority,
+                row -> List.of(row.getTotal(), row.getCompleted(), row.getOverdue())));
+    }
+}
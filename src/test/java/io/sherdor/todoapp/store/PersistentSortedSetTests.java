@@ -0,0 +1,60 @@
+package io.sherdor.todoapp.store;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PersistentSortedSetTests {
+
+    @Test
+    void matchesATreeSetThroughRandomChanges() {
+        Random random = new Random(42);
+        TreeSet<Integer> expected = new TreeSet<>();
+        PersistentSortedSet<Integer> set = PersistentSortedSet.empty(Comparator.naturalOrder());
+        for (int i = 0; i < 5000; i++) {
+            int value = random.nextInt(500);
+            if (random.nextInt(3) == 0) {
+                expected.remove(value);
+                set = set.without(value);
+            } else {
+                expected.add(value);
+                set = set.with(value);
+            }
+            if (i % 250 == 0) {
+                int from = random.nextInt(500);
+                int to = random.nextInt(500);
+                boolean fromInclusive = random.nextBoolean();
+                boolean toInclusive = random.nextBoolean();
+                List<Integer> range = from > to ? List.of()
+                        : new ArrayList<>(expected.subSet(from, fromInclusive, to, toInclusive));
+                assertThat(set.range(from, fromInclusive, to, toInclusive)).containsExactlyElementsOf(range);
+                assertThat(set.range(from, fromInclusive, to, toInclusive).descending())
+                        .containsExactlyElementsOf(range.reversed());
+                assertThat(set.range(from, fromInclusive, null, false))
+                        .containsExactlyElementsOf(expected.tailSet(from, fromInclusive));
+                assertThat(set.range(null, false, to, toInclusive).descending())
+                        .containsExactlyElementsOf(expected.headSet(to, toInclusive).descendingSet());
+            }
+        }
+        assertThat(set).containsExactlyElementsOf(expected);
+        assertThat(set.size()).isEqualTo(expected.size());
+    }
+
+    @Test
+    void earlierVersionsStayUnchanged() {
+        PersistentSortedSet<Integer> first = PersistentSortedSet.<Integer>empty(Comparator.naturalOrder())
+                .with(1).with(2).with(3);
+        PersistentSortedSet<Integer> second = first.without(2).with(4);
+
+        assertThat(first).containsExactly(1, 2, 3);
+        assertThat(second).containsExactly(1, 3, 4);
+        assertThat(first.find(2)).isEqualTo(2);
+        assertThat(second.find(2)).isNull();
+    }
+}
@@ -0,0 +1,147 @@
+package io.sherdor.todoapp.store;
+
+import io.sherdor.todoapp.dto.TodoDto;
+import io.sherdor.todoapp.enums.FsyncPolicy;
+import io.sherdor.todoapp.enums.Priority;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+import static java.nio.file.StandardOpenOption.WRITE;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TodoLogTests {
+
+    @TempDir
+    private Path directory;
+
+    private TodoLog log;
+
+    @AfterEach
+    void tearDown() {
+        log.close();
+    }
+
+    @Test
+    void recoversEveryChangeAfterARestart() {
+        Map<Long, TodoDto> todos = open();
+        assertThat(todos).isEmpty();
+        TodoDto first = todo(log.nextId(), "First", 0);
+        TodoDto second = todo(log.nextId(), "Second", 0);
+        log.record(first.getId(), first);
+        log.record(second.getId(), second);
+        TodoDto edited = todo(first.getId(), "First, edited", 1);
+        log.record(first.getId(), edited);
+        long position = log.record(second.getId(), null);
+        log.await(position);
+        log.close();
+
+        assertThat(open()).containsExactly(Map.entry(first.getId(), edited));
+        assertThat(log.position()).isEqualTo(position);
+        assertThat(log.nextId()).isGreaterThan(second.getId());
+    }
+
+    @Test
+    void recoveryStartsFromTheLatestSnapshot() throws IOException {
+        Map<Long, TodoDto> todos = open();
+        for (int i = 0; i < 100; i++) {
+            TodoDto todo = todo(log.nextId(), "Todo " + i, 0);
+            todos.put(todo.getId(), todo);
+            log.record(todo.getId(), todo);
+        }
+        log.checkpoint(new ArrayList<>(todos.values()), log.position());
+        TodoDto after = todo(1, "Changed after the snapshot", 1);
+        log.await(log.record(after.getId(), after));
+        todos.put(after.getId(), after);
+        log.close();
+
+        // The segment the snapshot covers is gone; only the change after it is left to replay
+        assertThat(files()).containsExactly("log-00000000000000000101.wal", "snapshot-00000000000000000100.bin");
+        assertThat(open()).isEqualTo(todos);
+    }
+
+    @Test
+    void tornTailIsCutOff() throws IOException {
+        open();
+        TodoDto kept = todo(log.nextId(), "Kept", 0);
+        log.record(kept.getId(), kept);
+        TodoDto torn = todo(log.nextId(), "Torn by a crash", 0);
+        log.await(log.record(torn.getId(), torn));
+        log.close();
+        Path segment = directory.resolve(files().getFirst());
+        try (FileChannel channel = FileChannel.open(segment, WRITE)) {
+            channel.truncate(channel.size() - 3);
+        }
+
+        assertThat(open()).containsOnlyKeys(kept.getId());
+        // Appends continue right after the last valid record
+        TodoDto next = todo(log.nextId(), "Next", 0);
+        log.await(log.record(next.getId(), next));
+        log.close();
+        assertThat(open()).containsOnlyKeys(kept.getId(), next.getId());
+    }
+
+    @Test
+    void batchIsRecoveredWholeOrNotAtAll() throws IOException {
+        open();
+        TodoDto single = todo(log.nextId(), "Single", 0);
+        log.record(single.getId(), single);
+        Map<Long, TodoDto> batch = new TreeMap<>();
+        for (int i = 0; i < 3; i++) {
+            TodoDto todo = todo(log.nextId(), "Batch " + i, 0);
+            batch.put(todo.getId(), todo);
+        }
+        long position = log.recordAll(batch);
+        log.await(position);
+        log.close();
+
+        Map<Long, TodoDto> recovered = open();
+        assertThat(recovered).containsAllEntriesOf(batch).containsKey(single.getId());
+        assertThat(log.position()).isEqualTo(position);
+        log.close();
+
+        // A crash tearing the batch record takes every todo of the batch with it
+        Path segment = directory.resolve(files().getFirst());
+        try (FileChannel channel = FileChannel.open(segment, WRITE)) {
+            channel.truncate(channel.size() - 3);
+        }
+        assertThat(open()).containsOnlyKeys(single.getId());
+    }
+
+    private Map<Long, TodoDto> open() {
+        Map<Long, TodoDto> todos = new TreeMap<>();
+        log = new TodoLog(directory, FsyncPolicy.ALWAYS, Duration.ofMillis(100));
+        log.recover((id, todo) -> {
+            if (todo == null) {
+                todos.remove(id);
+            } else {
+                todos.put(id, todo);
+            }
+        });
+        return todos;
+    }
+
+    private List<String> files() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(file -> file.getFileName().toString()).sorted().toList();
+        }
+    }
+
+    private static TodoDto todo(long id, String title, long version) {
+        LocalDateTime createdAt = LocalDateTime.of(2025, 6, 1, 9, 30, 15, 123_456_000);
+        return new TodoDto(id, title, version == 0 ? null : "description", version > 0, Priority.HIGH,
+                createdAt, version == 0 ? null : createdAt.plusDays(version), null, version);
+    }
+}